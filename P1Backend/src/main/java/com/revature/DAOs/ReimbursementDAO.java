@@ -1,11 +1,25 @@
 package com.revature.DAOs;
 
+import com.revature.models.DTOs.CollectionVersionDTO;
 import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingStatusStatsDTO;
 import com.revature.models.Reimbursement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface responsible for defining data access methods related to Reimbursement entities.
@@ -15,6 +29,19 @@ import java.util.List;
 @Repository
 public interface ReimbursementDAO extends JpaRepository<Reimbursement, Integer> {
 
+    /**
+     * Number of rows the JDBC driver pulls from the database per round trip when streaming.
+     */
+    public static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Retrieves a reimbursement by ID together with its user, in one query.
+     * @param reimbId ID of the reimbursement to be retrieved.
+     * @return Optional containing the reimbursement with its user loaded, if found.
+     */
+    @EntityGraph("Reimbursement.user")
+    public Optional<Reimbursement> findWithUserByReimbId(int reimbId);
+
     /**
      * Retrieves a list of reimbursements by user ID.
      * @param userId ID of the user whose reimbursements are to be retrieved.
@@ -45,4 +72,218 @@ public interface ReimbursementDAO extends JpaRepository<Reimbursement, Integer>
      */
     public List<Reimbursement> findByStatusAndUserRole(String status, String role);
 
+    // Projection queries: select only the columns OutgoingReimDTO needs straight into the DTO
+    // No entities are built, so no User is loaded, no sibling reimbursements are cascaded in
+    // and Hibernate keeps no dirty-checking snapshots. r.user.userId is read from the foreign key column, no join.
+
+    /**
+     * Retrieves every reimbursement as an OutgoingReimDTO.
+     * @return List of DTOs of all reimbursements, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r order by r.reimbId")
+    public List<OutgoingReimDTO> findAllOutgoing();
+
+    /**
+     * Retrieves the reimbursements of a user as OutgoingReimDTOs.
+     * @param userId ID of the user whose reimbursements are to be retrieved.
+     * @return List of DTOs of the user's reimbursements, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.user.userId = :userId order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingByUserId(@Param("userId") int userId);
+
+    /**
+     * Retrieves the reimbursements with a status as OutgoingReimDTOs.
+     * @param status Status of the reimbursements to be retrieved.
+     * @return List of DTOs of the reimbursements with the specified status, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.status = :status order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingByStatus(@Param("status") String status);
+
+    /**
+     * Retrieves the reimbursements of a user with a status as OutgoingReimDTOs.
+     * @param status Status of the reimbursements to be retrieved.
+     * @param userId ID of the user whose reimbursements are to be retrieved.
+     * @return List of DTOs of the user's reimbursements with the specified status, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.status = :status and r.user.userId = :userId order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingByStatusAndUserId(@Param("status") String status, @Param("userId") int userId);
+
+    /**
+     * Retrieves the reimbursements with the given IDs as OutgoingReimDTOs.
+     * @param reimbIds IDs of the reimbursements to be retrieved.
+     * @return List of DTOs of the reimbursements found, IDs that don't exist are left out.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.reimbId in :reimbIds")
+    public List<OutgoingReimDTO> findOutgoingByReimbIdIn(@Param("reimbIds") Collection<Integer> reimbIds);
+
+    /**
+     * Retrieves the reimbursements of the given users as OutgoingReimDTOs, to rebuild their spend rollups.
+     * @param userIds IDs of the users whose reimbursements are to be retrieved.
+     * @return List of DTOs of the users' reimbursements.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.user.userId in :userIds")
+    public List<OutgoingReimDTO> findOutgoingByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Moves a reimbursement from one status to another, only if it is still in the source status.
+     * The check and the write are one statement, so of two managers deciding at the same moment only one matches the row.
+     * @param reimbId The ID of the reimbursement.
+     * @param from The status the reimbursement must be in.
+     * @param to The status to set.
+     * @param now The modification time to stamp on the row.
+     * @return 1 if the reimbursement was moved, 0 if it doesn't exist or is not in the source status.
+     */
+    @Modifying
+    @Query("update Reimbursement r set r.status = :to, r.lastModified = :now, r.version = r.version + 1 " +
+            "where r.reimbId = :reimbId and r.status = :from")
+    public int transitionStatus(@Param("reimbId") int reimbId, @Param("from") String from, @Param("to") String to,
+                                @Param("now") Instant now);
+
+    /**
+     * Moves the reimbursements with the given IDs to a status in one UPDATE statement,
+     * only the ones that are still in one of the source statuses.
+     * @param from The statuses the reimbursements must be in.
+     * @param to The status to set.
+     * @param reimbIds IDs of the reimbursements to be updated.
+     * @param now The modification time to stamp on the updated rows.
+     * @return The number of reimbursements updated.
+     */
+    @Modifying
+    @Query("update Reimbursement r set r.status = :to, r.lastModified = :now, r.version = r.version + 1 " +
+            "where r.reimbId in :reimbIds and r.status in :from")
+    public int transitionStatusByReimbIdIn(@Param("from") Collection<String> from, @Param("to") String to,
+                                           @Param("reimbIds") Collection<Integer> reimbIds, @Param("now") Instant now);
+
+    /**
+     * Writes the description, status and amount of a reimbursement in one UPDATE statement,
+     * only if it is still at the version they were computed from.
+     * @param reimbId The ID of the reimbursement.
+     * @param version The version the new values were computed from.
+     * @param description The description to set.
+     * @param status The status to set.
+     * @param amount The amount to set.
+     * @param now The modification time to stamp on the row.
+     * @return 1 if the reimbursement was written, 0 if it was changed since that version (or deleted).
+     */
+    @Modifying
+    @Query("update Reimbursement r set r.description = :description, r.status = :status, r.amount = :amount, " +
+            "r.lastModified = :now, r.version = r.version + 1 where r.reimbId = :reimbId and r.version = :version")
+    public int patch(@Param("reimbId") int reimbId, @Param("version") long version, @Param("description") String description,
+                     @Param("status") String status, @Param("amount") int amount, @Param("now") Instant now);
+
+    /**
+     * Counts the reimbursements and sums their amounts per status, in one GROUP BY query.
+     * Used to rebuild the in-memory statistics, never on a request path.
+     * @return One DTO per status that has reimbursements.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingStatusStatsDTO(r.status, count(r), coalesce(sum(r.amount), 0)) " +
+            "from Reimbursement r group by r.status")
+    public List<OutgoingStatusStatsDTO> countByStatus();
+
+    // Listing versions: the row count and latest lastModified of a listing, in one aggregate query.
+    // They are the input of the listings' ETags, so an unchanged listing is answered with 304 without reading its rows.
+
+    /**
+     * Retrieves the version of the listing of all reimbursements.
+     * @return The count and latest modification time of all reimbursements.
+     */
+    @Query("select new com.revature.models.DTOs.CollectionVersionDTO(count(r), max(r.lastModified)) from Reimbursement r")
+    public CollectionVersionDTO findVersion();
+
+    /**
+     * Retrieves the version of the listing of a user's reimbursements.
+     * @param userId ID of the user.
+     * @return The count and latest modification time of the user's reimbursements.
+     */
+    @Query("select new com.revature.models.DTOs.CollectionVersionDTO(count(r), max(r.lastModified)) " +
+            "from Reimbursement r where r.user.userId = :userId")
+    public CollectionVersionDTO findVersionByUserId(@Param("userId") int userId);
+
+    /**
+     * Retrieves the version of the listing of the reimbursements with a status.
+     * @param status Status of the reimbursements.
+     * @return The count and latest modification time of the reimbursements with the status.
+     */
+    @Query("select new com.revature.models.DTOs.CollectionVersionDTO(count(r), max(r.lastModified)) " +
+            "from Reimbursement r where r.status = :status")
+    public CollectionVersionDTO findVersionByStatus(@Param("status") String status);
+
+    /**
+     * Retrieves the version of the listing of a user's reimbursements with a status.
+     * @param status Status of the reimbursements.
+     * @param userId ID of the user.
+     * @return The count and latest modification time of the user's reimbursements with the status.
+     */
+    @Query("select new com.revature.models.DTOs.CollectionVersionDTO(count(r), max(r.lastModified)) " +
+            "from Reimbursement r where r.status = :status and r.user.userId = :userId")
+    public CollectionVersionDTO findVersionByStatusAndUserId(@Param("status") String status, @Param("userId") int userId);
+
+    // Keyset (seek) pagination: every page starts right after the last reimbId of the previous page
+    // so the database walks the primary key index instead of skipping rows like OFFSET does
+
+    /**
+     * Retrieves the next page of reimbursements after the given reimbursement ID.
+     * @param reimbId ID of the last reimbursement of the previous page (0 for the first page).
+     * @param limit Maximum number of reimbursements to be retrieved.
+     * @return List of DTOs of reimbursements with a greater ID, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.reimbId > :reimbId order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingPage(@Param("reimbId") int reimbId, Limit limit);
+
+    /**
+     * Retrieves the next page of reimbursements of a user after the given reimbursement ID.
+     * @param userId ID of the user whose reimbursements are to be retrieved.
+     * @param reimbId ID of the last reimbursement of the previous page (0 for the first page).
+     * @param limit Maximum number of reimbursements to be retrieved.
+     * @return List of DTOs of the user's reimbursements with a greater ID, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.user.userId = :userId and r.reimbId > :reimbId order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingPageByUserId(@Param("userId") int userId, @Param("reimbId") int reimbId, Limit limit);
+
+    /**
+     * Retrieves the next page of reimbursements with a status after the given reimbursement ID.
+     * @param status Status of the reimbursements to be retrieved.
+     * @param reimbId ID of the last reimbursement of the previous page (0 for the first page).
+     * @param limit Maximum number of reimbursements to be retrieved.
+     * @return List of DTOs of reimbursements with the specified status and a greater ID, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.status = :status and r.reimbId > :reimbId order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingPageByStatus(@Param("status") String status, @Param("reimbId") int reimbId, Limit limit);
+
+    /**
+     * Retrieves the next page of reimbursements with a status of a user after the given reimbursement ID.
+     * @param status Status of the reimbursements to be retrieved.
+     * @param userId ID of the user whose reimbursements are to be retrieved.
+     * @param reimbId ID of the last reimbursement of the previous page (0 for the first page).
+     * @param limit Maximum number of reimbursements to be retrieved.
+     * @return List of DTOs of the user's reimbursements with the specified status and a greater ID, ordered by ID.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingReimDTO(r.reimbId, r.description, r.status, r.amount, r.user.userId, r.submittedAt, r.version) " +
+            "from Reimbursement r where r.status = :status and r.user.userId = :userId and r.reimbId > :reimbId order by r.reimbId")
+    public List<OutgoingReimDTO> findOutgoingPageByStatusAndUserId(@Param("status") String status, @Param("userId") int userId,
+                                                                  @Param("reimbId") int reimbId, Limit limit);
+
+    /**
+     * Streams every reimbursement, ordered by ID, without loading them all into memory.
+     * The JDBC driver fetches STREAM_FETCH_SIZE rows at a time and the entities are read-only,
+     * so Hibernate keeps no dirty-checking snapshots for them.
+     * Must be called inside a transaction and the stream must be closed by the caller.
+     * @return Stream of all reimbursements.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r from Reimbursement r order by r.reimbId")
+    public Stream<Reimbursement> streamAll();
+
 }
@@ -0,0 +1,47 @@
+package com.revature.DAOs;
+
+import com.revature.services.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a proxy that times every JDBC statement and hands it to SlowQueryLog,
+ * so every DAO, Hibernate and Flyway statement is timed without touching them.
+ * Replaces spring.jpa.show-sql, which printed every statement to stdout without telling how long it took.
+ */
+@Component
+public class SlowQueryDataSourceWrapper implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    /**
+     * Constructor for SlowQueryDataSourceWrapper.
+     * @param slowQueryLog The slow statement log, looked up when the DataSource is created,
+     * post processors are created before the other beans.
+     */
+    public SlowQueryDataSourceWrapper(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Wraps the DataSource once it is initialized.
+     * @param bean A bean of the application.
+     * @param beanName The name of the bean.
+     * @return The proxy for a DataSource, the bean itself otherwise.
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(slowQueryLog.getObject())
+                .build();
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.revature.DAOs;
+
+import com.revature.models.DTOs.OutgoingSpendRollupDTO;
+import com.revature.models.SpendRollup;
+import com.revature.models.SpendRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface responsible for defining data access methods related to SpendRollup entities.
+ * Extends JpaRepository to inherit basic CRUD operations.
+ * Uses Spring Data JPA for easy database interaction.
+ */
+@Repository
+public interface SpendRollupDAO extends JpaRepository<SpendRollup, SpendRollupId> {
+
+    // A rollup row is adjusted with an UPDATE, and only created when the UPDATE finds no row.
+    // The INSERT skips a row created by a concurrent transaction in between (the UPDATE is then run again).
+    // The statements are shared with the CSV import, which writes through a Hibernate StatelessSession.
+
+    /**
+     * HQL of addToRollup.
+     */
+    public static final String ADD_TO_ROLLUP = "update SpendRollup s " +
+            "set s.reimbursementCount = s.reimbursementCount + :count, s.totalAmount = s.totalAmount + :amount " +
+            "where s.userId = :userId and s.month = :month and s.status = :status";
+
+    /**
+     * SQL of insertRollupIfAbsent. ON CONFLICT DO NOTHING works on PostgreSQL and on H2 in PostgreSQL mode.
+     */
+    public static final String INSERT_ROLLUP_IF_ABSENT = "insert into {h-schema}spend_rollup " +
+            "(user_id, spend_month, status, reimbursement_count, total_amount) " +
+            "values (:userId, :month, :status, :count, :amount) on conflict do nothing";
+
+    /**
+     * Adds reimbursements to an existing rollup row, or removes them with negative values.
+     * @param userId ID of the user.
+     * @param month First day of the month.
+     * @param status Status of the reimbursements.
+     * @param count Number of reimbursements to add.
+     * @param amount Sum of their amounts.
+     * @return 1 if the row exists and was updated, 0 if it doesn't exist.
+     */
+    @Modifying
+    @Query(ADD_TO_ROLLUP)
+    public int addToRollup(@Param("userId") int userId, @Param("month") LocalDate month, @Param("status") String status,
+                           @Param("count") long count, @Param("amount") long amount);
+
+    /**
+     * Creates a rollup row, unless it already exists.
+     * @param userId ID of the user.
+     * @param month First day of the month.
+     * @param status Status of the reimbursements.
+     * @param count Number of reimbursements.
+     * @param amount Sum of their amounts.
+     * @return 1 if the row was created, 0 if it already existed.
+     */
+    @Modifying
+    @Query(value = INSERT_ROLLUP_IF_ABSENT, nativeQuery = true)
+    public int insertRollupIfAbsent(@Param("userId") int userId, @Param("month") LocalDate month, @Param("status") String status,
+                                    @Param("count") long count, @Param("amount") long amount);
+
+    /**
+     * Deletes the rollup rows of users.
+     * @param userIds IDs of the users.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from SpendRollup s where s.userId in :userIds")
+    public int deleteByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Retrieves the rollup rows of every user between two months, as OutgoingSpendRollupDTOs.
+     * @param from First day of the first month.
+     * @param to First day of the last month.
+     * @return List of DTOs, ordered by user, month and status.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingSpendRollupDTO(s.userId, s.month, s.status, s.reimbursementCount, s.totalAmount) " +
+            "from SpendRollup s where s.month between :from and :to order by s.userId, s.month, s.status")
+    public List<OutgoingSpendRollupDTO> findOutgoingByMonthBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Retrieves the rollup rows of a user between two months, as OutgoingSpendRollupDTOs.
+     * @param userId ID of the user.
+     * @param from First day of the first month.
+     * @param to First day of the last month.
+     * @return List of DTOs, ordered by month and status.
+     */
+    @Query("select new com.revature.models.DTOs.OutgoingSpendRollupDTO(s.userId, s.month, s.status, s.reimbursementCount, s.totalAmount) " +
+            "from SpendRollup s where s.userId = :userId and s.month between :from and :to order by s.month, s.status")
+    public List<OutgoingSpendRollupDTO> findOutgoingByUserIdAndMonthBetween(@Param("userId") int userId,
+                                                                           @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
@@ -1,9 +1,19 @@
 package com.revature.DAOs;
 
+import com.revature.models.DTOs.UserCredentialDTO;
 import com.revature.models.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,15 +24,59 @@ import java.util.Optional;
 @Repository
 public interface UserDAO extends JpaRepository<User,Integer> {
 
+    /**
+     * HQL of lockByUserIdIn, shared with the CSV import, which locks through a Hibernate StatelessSession.
+     * Users are locked in ID order, so two transactions locking overlapping users can't deadlock.
+     */
+    public static final String LOCK_USERS = "select u.userId from User u where u.userId in :userIds order by u.userId";
+
+    /**
+     * Retrieves what login needs about a user (userId, role and stored password) by username, in one indexed lookup.
+     * Only these three columns are read: no User entity is built and nothing attached to it is loaded,
+     * so a login costs the same whatever the user's history. The unique constraint on username is the index.
+     * @param username Username of the user to log in.
+     * @return Optional containing the credential of the user with the specified username, if found.
+     */
+    @Query("select new com.revature.models.DTOs.UserCredentialDTO(u.userId, u.role, u.password) " +
+            "from User u where u.username = :username")
+    public Optional<UserCredentialDTO> findCredentialByUsername(@Param("username") String username);
+
+    /**
+     * Replaces the stored password of a user, in one UPDATE without loading the user.
+     * Used to store the hash of a password still stored in plain text.
+     * @param userId ID of the user.
+     * @param password The new stored password (a bcrypt hash).
+     * @return The number of updated users.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.userId = :userId")
+    public int updatePassword(@Param("userId") int userId, @Param("password") String password);
+
+    /**
+     * Retrieves a user by ID together with all of the user's reimbursements, in one query.
+     * @param userId ID of the user to be retrieved.
+     * @return Optional containing the user with the reimbursements loaded, if found.
+     */
+    @EntityGraph("User.reimbursement")
+    public Optional<User> findWithReimbursementByUserId(int userId);
+
+    /**
+     * Retrieves the IDs of all users, without loading the users.
+     * @return List of user IDs, in ascending order.
+     */
+    @Query("select u.userId from User u order by u.userId")
+    public List<Integer> findAllUserIds();
 
     /**
-     * Retrieves an optional user by username and password.
-     * @param username Username of the user to be retrieved.
-     * @param password Password of the user to be retrieved.
-     * @return Optional containing the user with the specified username and password, if found.
+     * Locks users until the end of the current transaction. Everything that writes the spend rollups of a user
+     * takes this lock first, so a rollup rebuild never recomputes a user while a change to the user's rollups
+     * is in flight. On PostgreSQL it is FOR NO KEY UPDATE, it doesn't block the inserts of reimbursements.
+     * @param userIds IDs of the users.
+     * @return The IDs of the users that exist, in ascending order.
      */
-    public Optional<User> findByUsernameAndPassword(String username, String password);
-    //We need to add a custom method to find a user by username and password
-    //This is what we'll use to check for valid login credentials
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(LOCK_USERS)
+    public List<Integer> lockByUserIdIn(@Param("userIds") Collection<Integer> userIds);
 
 }
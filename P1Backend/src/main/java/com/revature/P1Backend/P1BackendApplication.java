@@ -27,7 +27,7 @@ that communicates via HTTP to a Spring-based back end, with data stored in Postg
 // The @ComponentScan annotation tells Spring to scan the specified package and its subpackages for Spring-managed components
 // such as controllers, services, and repositories.
 
-@EnableJpaRepositories("com.revature.daos")
+@EnableJpaRepositories("com.revature.DAOs")
 // The @EnableJpaRepositories annotation enables Spring Data JPA repositories, allowing us to use JpaRepository and other
 // repository interfaces. It specifies the base package where Spring Data JPA should scan for repository interfaces.
 public class P1BackendApplication {
@@ -0,0 +1,73 @@
+package com.revature.controllers;
+
+import com.revature.models.LoggedInUser;
+import com.revature.services.AuthTokens;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Checks the signed token of a request, sent in the P1_TOKEN cookie (browsers) or as an
+ * "Authorization: Bearer" header (other clients), and stores its user in the LoggedInUser.ATTRIBUTE request attribute.
+ * A missing, invalid or expired token is ignored: the request goes on without a logged in user,
+ * and the endpoint answers it the way it answers anyone who isn't logged in.
+ */
+@Component
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AuthTokens authTokens;
+
+    /**
+     * Constructor for AuthTokenFilter.
+     * @param authTokens Checks the tokens.
+     */
+    public AuthTokenFilter(AuthTokens authTokens) {
+        this.authTokens = authTokens;
+    }
+
+    /**
+     * Checks the token of a request, if it has one, then passes the request on.
+     * @param request The request.
+     * @param response The response.
+     * @param chain The rest of the filters.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = readToken(request);
+        if (token != null) {
+            authTokens.verify(token).ifPresent(user -> request.setAttribute(LoggedInUser.ATTRIBUTE, user));
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Reads the token of a request, the Authorization header first, then the cookie.
+     * @param request The request.
+     * @return The token, or null if the request has none.
+     */
+    private String readToken(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER)) {
+            return authorization.substring(BEARER.length()).trim();
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (cookie.getName().equals(AuthTokens.COOKIE)) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+}
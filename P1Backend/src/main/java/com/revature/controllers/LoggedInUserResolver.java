@@ -0,0 +1,63 @@
+package com.revature.controllers;
+
+import com.revature.models.LoggedInUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Fills in the LoggedInUser parameters of the controller methods: the user of the request's signed token
+ * (checked by AuthTokenFilter), otherwise the user stored in the HTTP session at login, otherwise null.
+ * An existing session is only read, never created, so token mode keeps no state on the server.
+ */
+@Component
+public class LoggedInUserResolver implements HandlerMethodArgumentResolver {
+
+    /**
+     * Tells Spring which parameters this resolver fills in.
+     * @param parameter A parameter of a controller method.
+     * @return True for LoggedInUser parameters.
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType().equals(LoggedInUser.class);
+    }
+
+    /**
+     * Finds the logged in user of a request.
+     * @param parameter The LoggedInUser parameter.
+     * @param mavContainer Unused.
+     * @param webRequest The request.
+     * @param binderFactory Unused.
+     * @return The logged in user, or null if nobody is logged in.
+     */
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return find(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
+
+    /**
+     * Finds the logged in user of a request, from its token or its existing session.
+     * @param request The request.
+     * @return The logged in user, or null if nobody is logged in.
+     */
+    public static LoggedInUser find(HttpServletRequest request) {
+        Object tokenUser = request.getAttribute(LoggedInUser.ATTRIBUTE);
+        if (tokenUser != null) {
+            return (LoggedInUser) tokenUser;
+        }
+
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            return null;
+        }
+        return new LoggedInUser((int) session.getAttribute("userId"), (String) session.getAttribute("role"));
+    }
+
+}
@@ -1,17 +1,29 @@
 package com.revature.controllers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.revature.DAOs.ReimbursementDAO;
 import com.revature.models.DTOs.IncomingReimDTO;
+import com.revature.models.DTOs.IncomingReimDescriptionDTO;
+import com.revature.models.DTOs.IncomingReimPatchDTO;
+import com.revature.models.DTOs.IncomingReimStatusDTO;
+import com.revature.models.DTOs.IncomingStatusDTO;
 import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingReimPageDTO;
+import com.revature.models.LoggedInUser;
 import com.revature.models.Reimbursement;
+import com.revature.services.ETags;
 import com.revature.services.ReimbursementService;
-import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static javax.management.Query.in;
@@ -24,7 +36,8 @@ in an employee reimbursement system. It defines methods for submitting,
 retrieving, updating, and deleting reimbursement requests.
 The controller interacts with a service layer (ReimbursementService)
 to perform business logic and data operations. Additionally,
-it utilizes HTTP sessions for user authentication and authorization,
+it identifies the logged in user (LoggedInUser, from the HTTP session or a signed token)
+for user authentication and authorization,
 allowing only logged-in users to access certain endpoints.
 The class is annotated with @RestController to mark it as a controller,
 and it specifies request mappings, request methods, and additional annotations such as
@@ -36,6 +49,10 @@ the HTTP endpoints and their functionalities.
 @RequestMapping("/reimbursements")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class ReimbursementController {
+
+    // Content type of a JSON Merge Patch (RFC 7396), Jackson reads it like any other +json type
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private ReimbursementService reimbursementService;
 
 
@@ -48,12 +65,12 @@ public class ReimbursementController {
     /**
     This method handles the HTTP POST request for submitting a new reimbursement.
     It expects a JSON object of type IncomingReimDTO in the request body,
-    which represents the reimbursement details. Additionally, it requires an active HTTP session
-    to identify the user submitting the reimbursement. If no user is logged in
-    (i.e., if the userId attribute in the session is null), it returns a 401 status code
+    which represents the reimbursement details. Additionally, it requires a logged in user
+    (from an HTTP session or a signed token) to identify the user submitting the reimbursement. If no user is logged in
+    (i.e., if loggedInUser is null), it returns a 401 status code
     with an appropriate error message.
 
-    Once the user is authenticated, the method retrieves the userId from the session
+    Once the user is authenticated, the method retrieves the userId of the logged in user
     and attaches it to the reimbursement DTO. This ensures that the reimbursement is associated with
     the correct user. The method then invokes the addReimbursement method from the
     ReimbursementService to perform the addition of the reimbursement to the system.
@@ -62,20 +79,20 @@ public class ReimbursementController {
     during the addition process, it returns a 400 status code with the corresponding error message.
      */
     @PostMapping
-    public ResponseEntity<String> submitReimbursement(@RequestBody IncomingReimDTO reimDTO, HttpSession session){
+    public ResponseEntity<String> submitReimbursement(@RequestBody IncomingReimDTO reimDTO, LoggedInUser loggedInUser){
 
         // If there is no registered user, userId will be null
         // We no longer need to attach userId on our HTTP endpoint
         //Each user has their own session, unique userId then
         //Once login is done, sent userId with the Reimbursement from the frontend
         // If the user is not logged in (if the userId is null), send back a 401
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(401).body("First, you must be logged in to submit reimbursement!");
         }
 
-        //Now that we have user info saved (in our HTTP Session),
+        //Now that we have user info saved (in our HTTP Session or token),
         // we can attach the stored user Id to the reimDTO
-        reimDTO.setUserId((int) session.getAttribute("userId"));
+        reimDTO.setUserId(loggedInUser.getUserId());
 
 
         //try/catch for error handling
@@ -90,6 +107,31 @@ public class ReimbursementController {
     }
 
 
+    /**
+     This method handles the HTTP POST request for submitting many reimbursements at once,
+     for example when a corporate card feed pushes hundreds of expenses for an employee.
+     It expects a JSON array of IncomingReimDTO objects, all of them are submitted for the logged in user.
+     Every reimbursement is validated first: if any is invalid nothing is inserted and a 400 status code
+     is returned with the position and the reason. Otherwise they are inserted in batches and a 201 status code is returned.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<String> submitReimbursements(@RequestBody List<IncomingReimDTO> reimDTOs, LoggedInUser loggedInUser){
+
+        // If the user is not logged in (if the userId is null), send back a 401
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in to submit reimbursements!");
+        }
+
+        try {
+            int count = reimbursementService.addReimbursements(reimDTOs, loggedInUser.getUserId());
+            return ResponseEntity.status(201).body(count + " reimbursements submitted!");
+
+        }catch(IllegalArgumentException e){
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+
     /**
      *  This method handles the HTTP GET request to retrieve all reimbursements.
      It checks if the user is logged in by verifying the presence of the userId attribute
@@ -98,45 +140,158 @@ public class ReimbursementController {
 
      Upon successful login, the method retrieves the user's role and userId from the session.
      If the user is identified as a manager, it retrieves all reimbursements from the database
-     using the getAllReimbursement method from the ReimbursementService and returns them in the
+     using the getReimbursementPage method from the ReimbursementService and returns them in the
      response body with a 200 status code. Otherwise, if the user is an employee, it retrieves only
-     the reimbursements associated with their userId using the getAllReimbursementByID method
+     the reimbursements associated with their userId using the getReimbursementPageByID method
      and returns them in the response body.
+
+     Results are paginated by reimbursement ID. The optional limit query parameter sets the page size,
+     and the next cursor returned with a page is sent back as the next query parameter to get the following page.
+
+     Every page is sent with an ETag. When the client sends it back in If-None-Match and nothing in the listing
+     changed, a 304 status code is returned without loading the page.
      */
     @GetMapping()
-    public ResponseEntity<?> getAllReimbursement(HttpSession session) {
+    public ResponseEntity<?> getAllReimbursement(LoggedInUser loggedInUser, WebRequest webRequest,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String next) {
 
         //Login check
-        if (session.getAttribute("userId") == null) {
+        if (loggedInUser == null) {
             return ResponseEntity.status(401).body("You must be logged in to get your Reimbursements!");
         }
         // Retrieve user role and ID from session
-        String role = (String) session.getAttribute("role");
-        int sessionId = (int) session.getAttribute("userId");
-
-        // Retrieve reimbursements based on user role
-        if (role.equals("manager")) {
-            // Retrieve all reimbursements for managers
-            return ResponseEntity.ok(reimbursementService.getAllReimbursement());
-        } else {
-            // Retrieve reimbursements for employees by their session ID
-            return ResponseEntity.ok(reimbursementService.getAllReimbursementByID(sessionId));
+        String role = loggedInUser.getRole();
+        int sessionId = loggedInUser.getUserId();
+
+        try {
+            // Managers see everyone's reimbursements, employees only theirs
+            Integer scope = role.equals("manager") ? null : sessionId;
+            String etag = reimbursementService.getPageETag("ALL", scope, next, limit);
+            // Sets the 304 status and the ETag header when the client's copy is still current
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
+            // Retrieve reimbursements based on user role
+            OutgoingReimPageDTO page;
+            if (role.equals("manager")) {
+                // Retrieve all reimbursements for managers
+                page = reimbursementService.getReimbursementPage(next, limit);
+            } else {
+                // Retrieve reimbursements for employees by their session ID
+                page = reimbursementService.getReimbursementPageByID(sessionId, next, limit);
+            }
+            return ResponseEntity.ok().eTag(etag).body(page);
+        } catch (IllegalArgumentException e) {
+            // Invalid limit or cursor
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+    /**
+     This method handles the HTTP GET request to export every reimbursement, for the nightly finance pull.
+     Only managers can export. The response is newline-delimited JSON (one OutgoingReimDTO per line),
+     written to the client while rows are read from the database, so the whole table is never held in memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReimbursements(LoggedInUser loggedInUser){
+
+        //Login check
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).contentType(MediaType.TEXT_PLAIN)
+                    .body(message("First, you must be logged in!"));
+        }
+
+        //Role check
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).contentType(MediaType.TEXT_PLAIN)
+                    .body(message("You do not have permission to export reimbursements!"));
+        }
+
+        // The body is written after this method returns, the service opens its own transaction for the stream
+        StreamingResponseBody body = out -> reimbursementService.exportReimbursements(out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     This method handles the HTTP GET request for the hit, miss and eviction statistics
+     of the cache in front of the manager's reimbursement listings. Only managers can see them.
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats(LoggedInUser loggedInUser){
+
+        //Login check
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+
+        //Role check
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to view the cache statistics!");
+        }
+
+        return ResponseEntity.ok(reimbursementService.getCacheStats());
+    }
+
+    /**
+     This method handles the HTTP GET request for a Server-Sent Events stream of the status changes
+     of the logged in user's reimbursements. Every approval or denial is pushed as a "status" event
+     holding the reimbursement, so the page doesn't need to refetch the list. The connection doesn't hold
+     a server thread while it waits, and browsers (EventSource) reconnect by themselves when it times out.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getStatusEvents(LoggedInUser loggedInUser){
+
+        //Login check, an event stream has no room for an error message
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).build();
         }
+
+        int userId = loggedInUser.getUserId();
+        return ResponseEntity.ok(reimbursementService.subscribeToStatusChanges(userId));
+    }
+
+    /**
+     This method handles the HTTP GET request for the number of reimbursements and the total amount
+     in each status (PENDING, APPROVED, DENIED). The numbers are kept in memory, so this doesn't query
+     the database. Only managers can see them.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(LoggedInUser loggedInUser){
+
+        //Login check
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+
+        //Role check
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to view the reimbursement statistics!");
+        }
+
+        return ResponseEntity.ok(reimbursementService.getStats());
     }
 
     /** This method handles the HTTP DELETE request for deleting a reimbursement by its ID.
      */
     @DeleteMapping("/{reimId}")
-    public ResponseEntity<String> deleteReimbursement(@PathVariable int reimId, HttpSession session){
+    public ResponseEntity<String> deleteReimbursement(@PathVariable int reimId, LoggedInUser loggedInUser){
 
         // Login check
         // If user is not logged in, return 401 status code with an error message
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(401).body("You must be logged in to delete a Reimbursement!");
         }
 
         //Get the userId from the session
-        int userId = (int) session.getAttribute("userId");
+        int userId = loggedInUser.getUserId();
 
         //try/catch the service method, either returning a confirmation or error message
         try {
@@ -156,41 +311,51 @@ public class ReimbursementController {
 
     Upon successful login, it retrieves the user's role and userId from the session.
     If the user is identified as a manager, it retrieves all reimbursements by the
-    specified status using the getReimbByStatus method from the ReimbursementService.
+    specified status using the getReimbPageByStatus method from the ReimbursementService.
     If no reimbursements are found for the given status, it returns a 400 status code with an error message.
 
-    If the user is an employee, it retrieves only the pending reimbursements associated with the employee's ID
-     using the getReimbByStatusAndId method from the ReimbursementService. Again, if no reimbursements are found
+    If the user is an employee, it retrieves only the reimbursements associated with the employee's ID
+     using the getReimbPageByStatusAndId method from the ReimbursementService. Again, if no reimbursements are found
      for the given status, it returns a 400 status code with an error message.
+
+     Results are paginated the same way as getAllReimbursement, with the optional limit and next query parameters,
+     and each page carries an ETag honoured in If-None-Match the same way too.
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Object> getReimbByStatus(HttpSession session, @PathVariable String status){
+    public ResponseEntity<Object> getReimbByStatus(LoggedInUser loggedInUser, WebRequest webRequest, @PathVariable String status,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String next){
         //Login check
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(401).body("First, you must be logged in!");
         }
         // Get user role and ID from session
-        String role = (String) session.getAttribute("role");
-        int sessionId = (int) session.getAttribute("userId");
+        String role = loggedInUser.getRole();
+        int sessionId = loggedInUser.getUserId();
 
-//        if(reimbursementService.getReimbByStatusAndId(status,sessionId).isEmpty()){
-//            return ResponseEntity.status(400).body("You don't have any " + status +  " reimbursement recently!");
-//        }
         try {
+            // Same conditional GET as the listing of all reimbursements
+            Integer scope = role.equals("manager") ? null : sessionId;
+            String etag = reimbursementService.getPageETag(status, scope, next, limit);
+            if(webRequest.checkNotModified(etag)){
+                return null;
+            }
+
             // Retrieve reimbursement tickets based on user role and status
+            OutgoingReimPageDTO page;
             if(role.equals("manager")){
                 // If user is a manager, retrieve all reimbursements by status
-                if(!status.equals("ALL") && reimbursementService.getReimbByStatus(status).isEmpty()){
-                    return ResponseEntity.status(400).body("You don't have any " + status +  " reimbursement recently!");
-                }
-                return ResponseEntity.ok().body(reimbursementService.getReimbByStatus(status));
+                page = reimbursementService.getReimbPageByStatus(status, next, limit);
             }else {
-                if(!status.equals("ALL") && reimbursementService.getReimbByStatusAndId(status,sessionId).isEmpty() ){
-                    return ResponseEntity.status(400).body("You don't have any " + status +  " reimbursement recently!");
-                }
-                // If user is an employee, retrieve only pending reimbursements associated with the employee's ID
-                return ResponseEntity.ok().body(reimbursementService.getReimbByStatusAndId(status, sessionId));
+                // If user is an employee, retrieve only reimbursements associated with the employee's ID
+                page = reimbursementService.getReimbPageByStatusAndId(status, sessionId, next, limit);
             }
+
+            // Only an empty first page means there is nothing with this status
+            if(!status.equals("ALL") && next == null && page.getReimbursements().isEmpty()){
+                return ResponseEntity.status(400).body("You don't have any " + status +  " reimbursement recently!");
+            }
+            return ResponseEntity.ok().eTag(etag).body(page);
         }catch (IllegalArgumentException e) {
             return ResponseEntity.status(400).body(e.getMessage());
         }
@@ -204,16 +369,18 @@ public class ReimbursementController {
      When you send a PATCH request with Axios using axios.patch() from frontend,
      the data is sent in the request body.
      @RequestBody,expects the data to be passed in the request body as JSON.
+     Only PENDING reimbursements can be approved or denied. If the reimbursement was already decided
+     (for example by another manager a moment before), a 409 status code is returned.
      */
     @PatchMapping("/{reimId}")
-    public ResponseEntity<String> updateStatus(HttpSession session, @PathVariable int reimId, @RequestBody String status){
+    public ResponseEntity<String> updateStatus(LoggedInUser loggedInUser, @PathVariable int reimId, @RequestBody IncomingReimStatusDTO status){
         // Check if user is logged in
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You must be logged in to update a user's role.");
             //return ResponseEntity.status(401).body("First, you must be logged in!");
         }
         // Get user role from session
-        String role = (String) session.getAttribute("role");
+        String role = loggedInUser.getRole();
 
 
         // Check if user is a manager
@@ -225,37 +392,133 @@ public class ReimbursementController {
 
         try{
             // Update reimbursement status using the service method
-            reimbursementService.updateStatus(reimId,status);
+            OutgoingReimDTO updated = reimbursementService.updateStatus(reimId,status);
             // Return 200 status code with success message if update is successful
-            return ResponseEntity.ok().body("Reimbursement status updated to " + status + "!");
+            return ResponseEntity.ok().body("Reimbursement status updated to " + updated.getStatus() + "!");
+        }catch (IllegalStateException e){
+            // Already decided, by another manager or earlier: a PENDING reimbursement is decided only once
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }catch (IllegalArgumentException e){
             // Return 200 status code with error message if an IllegalArgumentException occurs
             return ResponseEntity.ok().body(e.getMessage());
-        } catch (JsonProcessingException e) {
-            // Throw a RuntimeException if JsonProcessingException occurs
-            throw new RuntimeException(e);
         }
     }
 
 
+    /**
+     This method patches a reimbursement with a JSON Merge Patch (Content-Type: application/merge-patch+json):
+     the description, status and amount in the body are set in one round trip and one UPDATE,
+     the fields left out are kept. For example {"status":"APPROVED"} or {"description":"Hotel","amount":120}.
+
+     Employees can patch the description and amount of their own reimbursements, managers any reimbursement,
+     and only managers can change the status. The amount can only change while the reimbursement is PENDING,
+     and a decided reimbursement can't be decided again (409). Send the version being edited as "If-Match: \"version\""
+     to get a 412 status code instead of overwriting someone else's change.
+     The response holds the patched reimbursement, with its new version also in the ETag header.
+     */
+    @PatchMapping(value = "/{reimId}", consumes = MERGE_PATCH_JSON)
+    public ResponseEntity<Object> patchReimbursement(LoggedInUser loggedInUser, @PathVariable int reimId,
+                                                     @RequestBody IncomingReimPatchDTO patch,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        // Check if user is logged in
+        if(loggedInUser == null){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You must be logged in to update a reimbursement.");
+        }
+
+        // Only managers decide, and employees only see their own reimbursements
+        boolean manager = loggedInUser.getRole().equals("manager");
+        if(patch.hasStatus() && !manager){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You do not have permission to update the status");
+        }
+
+        try{
+            OutgoingReimDTO patched = reimbursementService.patchReimbursement(reimId, patch,
+                    manager ? null : loggedInUser.getUserId(), ifMatch);
+            return ResponseEntity.ok()
+                    .eTag(ETags.version(patched.getVersion()))
+                    .body(patched);
+        }catch (OptimisticLockingFailureException e){
+            // Someone else's change won, don't overwrite it
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        }catch (IllegalStateException e){
+            // Already decided, it can't be decided again or change its amount
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+    /**
+     This method approves or denies many reimbursements at once, for month-end approval runs.
+     It takes a JSON array of {reimbId, status} pairs in the request body. Only managers can use it.
+     All changes are applied in one transaction with a few set-based UPDATEs, and the response
+     lists, for every item, whether it was UPDATED, NOT_FOUND, ALREADY_IN_STATUS, INVALID_STATUS, INVALID_TRANSITION
+     (only PENDING reimbursements can be decided) or a DUPLICATE. If another manager decided some of them
+     while the run was applied, nothing is changed and a 409 status code is returned.
+     */
+    @PatchMapping
+    public ResponseEntity<?> bulkUpdateStatus(LoggedInUser loggedInUser, @RequestBody List<IncomingStatusDTO> updates){
+        // Check if user is logged in
+        if(loggedInUser == null){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You must be logged in to update reimbursements.");
+        }
+
+        // Check if user is a manager
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You do not have permission to update the status");
+        }
+
+        try{
+            return ResponseEntity.ok().body(reimbursementService.bulkUpdateStatus(updates));
+        }catch (OptimisticLockingFailureException e){
+            // Another manager decided some of them meanwhile, nothing was applied
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
     /**
     This method updates the description of a reimbursement identified by the provided reimbursement ID (reimbId).
      It takes the new description as input from the request body and performs the update.
+
+     Edits are optimistic: send the version of the reimbursement being edited (from its DTO) as "If-Match: \"version\"".
+     If someone else updated it in the meantime, nothing is written and a 412 status code is returned,
+     reload the reimbursement and try again. Without If-Match the description is overwritten whatever the version.
+     The response holds the updated reimbursement, with its new version also in the ETag header.
      */
-    @PutMapping("/{userId}")
-    public ResponseEntity<Object> updateRole(HttpSession session, @PathVariable int reimbId, @RequestBody String desc){
+    @PutMapping("/{reimbId}")
+    public ResponseEntity<Object> updateDescription(LoggedInUser loggedInUser, @PathVariable int reimbId, @RequestBody IncomingReimDescriptionDTO desc,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         // Check if user is logged in
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You must be logged in to update a user's role.");
             //return ResponseEntity.status(401).body("First, you must be logged in!");
         }
 
         try{
             // Update reimbursement description using the service method
-            return ResponseEntity.ok().body(reimbursementService.updateDescription(reimbId, desc));
-        }catch (IllegalArgumentException | JsonProcessingException e){
+            Reimbursement saved = reimbursementService.updateDescription(reimbId, desc, ifMatch);
+            return ResponseEntity.ok()
+                    .eTag(ETags.version(saved.getVersion()))
+                    .body(reimbursementService.getReimDTO(saved));
+        }catch (OptimisticLockingFailureException e){
+            // Someone else's edit won, don't overwrite it
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        }catch (IllegalArgumentException e){
             return ResponseEntity.ok().body(e.getMessage());
         }
     }
 
+    /**
+     * Wraps an error message in a streaming body. Spring only streams a body declared as a StreamingResponseBody,
+     * so the export answers its errors the same way.
+     * @param message The message to send.
+     * @return The body writing the message.
+     */
+    private static StreamingResponseBody message(String message){
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
@@ -0,0 +1,92 @@
+package com.revature.controllers;
+
+import com.revature.models.LoggedInUser;
+import com.revature.services.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Controller class responsible for handling HTTP requests to import historical reimbursements from CSV files.
+ * An upload starts an import job in the background and returns its job ID right away,
+ * the job's progress and errors are then polled with that ID. Only managers can import.
+ */
+@RestController
+@RequestMapping("/reimbursements/import")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ReimbursementImportController {
+
+    private ImportService importService;
+
+    /**
+     * Constructor for ReimbursementImportController.
+     * @param importService ImportService instance to be autowired.
+     */
+    @Autowired
+    public ReimbursementImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Handles HTTP POST request for uploading a CSV file of reimbursements to import.
+     * The file is sent as the "file" part of a multipart request, with a header line and then
+     * one reimbursement per line: userId,description,amount[,status[,submittedAt]]
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @param file The CSV file.
+     * @return ResponseEntity with a 202 status code and the new job's progress (including its job ID).
+     */
+    @PostMapping
+    public ResponseEntity<Object> startImport(LoggedInUser loggedInUser, @RequestParam("file") MultipartFile file){
+
+        //Login check
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+
+        //Role check
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to import reimbursements!");
+        }
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.startImport(file));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("The upload could not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles HTTP GET request for the progress of an import job.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @param jobId The ID of the job returned by the upload.
+     * @return ResponseEntity containing the job's status, row counters and the errors of the first rejected rows.
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Object> getImportJob(LoggedInUser loggedInUser, @PathVariable String jobId){
+
+        //Login check
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+
+        //Role check
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to view imports!");
+        }
+
+        try {
+            return ResponseEntity.ok(importService.getImportJob(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+    }
+
+}
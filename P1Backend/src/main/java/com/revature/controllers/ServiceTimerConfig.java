@@ -0,0 +1,50 @@
+package com.revature.controllers;
+
+import io.micrometer.core.aop.MeterTagAnnotationHandler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Times the @Timed service classes (service.operation) like Spring Boot does, tagged with the class and method,
+ * and also with the role of the logged in user, the same tag RoleObservationConvention adds to the request timers.
+ * Service calls outside of a request (imports, rollup rebuilds) are tagged role="none".
+ */
+@Configuration
+public class ServiceTimerConfig {
+
+    /**
+     * Replaces the TimedAspect Spring Boot would create.
+     * @param registry The registry the timers are added to.
+     * @param meterTagAnnotationHandler Handles @MeterTag parameters, if Spring Boot created one.
+     * @return The aspect timing the @Timed methods.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry, ObjectProvider<MeterTagAnnotationHandler> meterTagAnnotationHandler) {
+        TimedAspect aspect = new TimedAspect(registry, ServiceTimerConfig::tags);
+        meterTagAnnotationHandler.ifAvailable(aspect::setMeterTagAnnotationHandler);
+        return aspect;
+    }
+
+    /**
+     * Builds the tags of a timed service call.
+     * @param joinPoint The called method.
+     * @return The class, method and role tags.
+     */
+    private static Tags tags(ProceedingJoinPoint joinPoint) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return Tags.of(
+                "class", joinPoint.getStaticPart().getSignature().getDeclaringTypeName(),
+                "method", joinPoint.getStaticPart().getSignature().getName(),
+                "role", RoleObservationConvention.role(attributes instanceof ServletRequestAttributes servlet
+                        ? servlet.getRequest() : null));
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.revature.controllers;
+
+import com.revature.models.DTOs.OutgoingSlowQueryDTO;
+import com.revature.services.SlowQueryLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Serves the slow statement table on /actuator/slowqueries: GET reads it, DELETE empties it.
+ * Neither needs a login, so like the other actuator endpoints it is served on the local management port only.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Constructor for SlowQueryEndpoint.
+     * @param slowQueryLog The slow statement log.
+     */
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Reads the slow statement table.
+     * @return The statements with the most time spent in slow runs, the slowest first.
+     */
+    @ReadOperation
+    public List<OutgoingSlowQueryDTO> slowQueries() {
+        return slowQueryLog.getTop();
+    }
+
+    /**
+     * Empties the slow statement table.
+     */
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+
+}
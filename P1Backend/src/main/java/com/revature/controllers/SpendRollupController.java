@@ -0,0 +1,102 @@
+package com.revature.controllers;
+
+import com.revature.models.LoggedInUser;
+import com.revature.services.SpendRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Controller class responsible for handling HTTP requests for the monthly spend rollups,
+ * the spend of each user per month and per status that the finance dashboards display.
+ */
+@RestController
+@RequestMapping("/reimbursements/rollups")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class SpendRollupController {
+
+    private SpendRollupService spendRollupService;
+
+    /**
+     * Constructor for SpendRollupController.
+     * @param spendRollupService SpendRollupService instance to be autowired.
+     */
+    @Autowired
+    public SpendRollupController(SpendRollupService spendRollupService) {
+        this.spendRollupService = spendRollupService;
+    }
+
+    /**
+     * Handles HTTP GET request for the spend rollups between two months.
+     * Managers see every user, or one user with the userId parameter. Employees only see their own spend.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @param userId The ID of the user, optional.
+     * @param from The first month (yyyy-MM), optional, defaults to 11 months before the last one.
+     * @param to The last month (yyyy-MM), optional, defaults to the current month.
+     * @return ResponseEntity containing one row per user, month and status.
+     */
+    @GetMapping
+    public ResponseEntity<Object> getRollups(LoggedInUser loggedInUser,
+                                             @RequestParam(required = false) Integer userId,
+                                             @RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to){
+
+        //Login check
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+
+        // Employees can only look at their own spend
+        int loggedInUserId = loggedInUser.getUserId();
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            if(userId != null && userId != loggedInUserId){
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You can only view your own spend!");
+            }
+            userId = loggedInUserId;
+        }
+
+        try {
+            return ResponseEntity.ok(spendRollupService.getRollups(userId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Handles HTTP POST request for recomputing every spend rollup from the reimbursements.
+     * Only needed if the rollups drifted, for example after rows were changed by hand in the database.
+     * The request thread is released while the rebuild runs, the response is sent once every rollup is written.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @return ResponseEntity with the number of rollup rows written, or a 500 status code with the reason
+     * the rebuild failed (the chunks that were written stay written, rebuild again).
+     */
+    @PostMapping("/rebuild")
+    public CompletableFuture<ResponseEntity<String>> rebuildRollups(LoggedInUser loggedInUser){
+
+        //Login check
+        if(loggedInUser == null){
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("First, you must be logged in!"));
+        }
+
+        //Role check
+        String role = loggedInUser.getRole();
+        if(!role.equals("manager")){
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to rebuild the spend rollups!"));
+        }
+
+        return spendRollupService.rebuild()
+                .thenApply(rows -> ResponseEntity.ok(rows + " spend rollup rows rebuilt!"))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Spend rollup rebuild failed: " + cause.getMessage());
+                });
+    }
+
+}
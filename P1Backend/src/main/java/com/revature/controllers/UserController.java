@@ -1,16 +1,25 @@
 package com.revature.controllers;
 
 import com.revature.models.DTOs.IncomingUserDTO;
+import com.revature.models.DTOs.OutgoingSessionDTO;
 import com.revature.models.DTOs.OutgoingUserDTO;
-import com.revature.models.User;
+import com.revature.models.LoggedInUser;
+import com.revature.services.AuthTokens;
+import com.revature.services.ETags;
 import com.revature.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller class responsible for handling HTTP requests related to user management functionalities
@@ -41,47 +50,61 @@ public class UserController {
     // Autowires UserService for handling user-related business logic
     private UserService userService;
 
+    // Issues the signed tokens of token mode
+    private AuthTokens authTokens;
+
     /**
      * Constructor for UserController.
      * @param userService UserService instance to be autowired.
+     * @param authTokens AuthTokens instance to be autowired.
      */
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, AuthTokens authTokens) {
         this.userService = userService;
+        this.authTokens = authTokens;
     }
 
     /**
      * REGISTER
      * Handles HTTP POST request for registering a new user.
+     * The password is hashed on the hashing threads, the request thread is released until the user is saved.
      * @param userDTO IncomingUserDTO containing user registration information.
-     * @return ResponseEntity containing the registration status message.
+     * @return ResponseEntity containing the registration status message, once the user is saved.
      */
     @PostMapping
-    public ResponseEntity<String> registerUser(@RequestBody IncomingUserDTO userDTO){
+    public CompletableFuture<ResponseEntity<String>> registerUser(@RequestBody IncomingUserDTO userDTO){
 
         //try to register the user
         // if anything goes wrong, the exception will be caught in catch block
         // and error messages will be displayed as we determined in UserService class
 
         try{
-            userService.registerUser(userDTO);
-            return ResponseEntity.status(201).body(userDTO.getUsername() + " was created!");
+            return userService.registerUser(userDTO)
+                    .thenApply(user -> ResponseEntity.status(201).body(userDTO.getUsername() + " was created!"));
             //If this all works, send back a 201 CREATED, plus a confirmation message
         } catch (IllegalArgumentException e){
-            return ResponseEntity.status(400).body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(400).body(e.getMessage()));
             //If something goes wrong, send back a 400 BAD REQUEST, plus the error message
+        } catch (RejectedExecutionException e){
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()));
+            //If too many passwords are being hashed at once, send back a 503 SERVICE UNAVAILABLE
         }
     }
 
     /**
      * LOGIN
      * Handles HTTP POST request for user login.
+     * In session mode (auth.mode=session) the user is stored in the HTTP session. In token mode (auth.mode=token)
+     * nothing is stored on the server, a signed token holding the user is sent back in a cookie instead.
+     * Too many failed logins get a 429, and a 503 when too many passwords are being checked at once.
+     * The password is checked on the hashing threads, the request thread is released until it is.
      * @param userDTO IncomingUserDTO containing user login credentials.
-     * @param session HttpSession for storing user information.
-     * @return ResponseEntity containing the login status message or user information if successful.
+     * @param request The request, for the client's IP and for its HTTP session in session mode.
+     * @return ResponseEntity containing the login status message or user information if successful,
+     * once the password is checked.
      */
     @PostMapping("/login")
-    public ResponseEntity<Object> loginUser(@RequestBody IncomingUserDTO userDTO, HttpSession session){
+    public CompletableFuture<ResponseEntity<Object>> loginUser(@RequestBody IncomingUserDTO userDTO, HttpServletRequest request){
 
 
         // How can I check if incoming user is a valid user?
@@ -90,54 +113,117 @@ public class UserController {
         // We will use HttpSession here. Once we log in our user information should be stored in the session
         // So our information can be used anywhere inside API as long as we logged in.
         //Get the User object from the service (which talks to the DB)
-        Optional<User> optionalUser = userService.loginUser(userDTO);
+        CompletableFuture<Optional<OutgoingUserDTO>> login;
+        try {
+            login = userService.loginUser(userDTO, request.getRemoteAddr());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(400).body(e.getMessage()));
+        } catch (IllegalStateException e) {
+            //Too many failed logins for this username or from this IP
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            //Every password hashing thread is busy and the queue is full
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()));
+        }
+
+        return login.thenApply(optionalUser -> loggedIn(optionalUser, request))
+                .exceptionally(e -> {
+                    //The new hash of a legacy password was refused, the queue filled up meanwhile
+                    if (e instanceof CompletionException && e.getCause() instanceof RejectedExecutionException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getCause().getMessage());
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                });
+    }
+
+    /**
+     * Answers a login once the password is checked.
+     * @param optionalUser The logged in user, or empty if the login failed.
+     * @param request The request, for its HTTP session in session mode.
+     * @return ResponseEntity containing the login status message or user information if successful.
+     */
+    private ResponseEntity<Object> loggedIn(Optional<OutgoingUserDTO> optionalUser, HttpServletRequest request){
 
         //If login fails (which will return an empty optional), tell the user they failed
-            try {
-                if(optionalUser.isEmpty()) {
-                    return ResponseEntity.status(401).body("Login Failed!");
-                }
-            } catch (IllegalArgumentException e) {
-                return ResponseEntity.ok().body(e.getMessage());
-            }
+        if(optionalUser.isEmpty()) {
+            return ResponseEntity.status(401).body("Login Failed!");
+        }
 
-        //If login succeeds store the user info in our session
-        User u = optionalUser.get();
+        OutgoingUserDTO u = optionalUser.get();
+
+        //In token mode, send the user info back in a signed token instead, any instance can check it
+        if(authTokens.isTokenMode()){
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, authTokens.cookie(u.getUserId(), u.getRole()).toString())
+                    .body(u);
+        }
 
-        //Storing the user info in our session
+        //If login succeeds store the user info in our session
+        HttpSession session = request.getSession();
         session.setAttribute("userId", u.getUserId());
         //session.setAttribute("username", u.getUsername()); //probably won't use this
 
         session.setAttribute("role", u.getRole());
 
         //Finally, send back a 200 (OK) as well as a OutgoingUserDTO
-        return ResponseEntity.ok(new OutgoingUserDTO(u.getUserId(), u.getUsername(), u.getRole()));
+        return ResponseEntity.ok(u);
+    }
+
+    /**
+     * Handles HTTP GET request for the statistics of the password hashing threads: how many hashes wait
+     * for a thread (the queue depth), run, completed and were rejected. Only managers can see them.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @return ResponseEntity containing the hashing statistics.
+     */
+    @GetMapping("/hashing-stats")
+    public ResponseEntity<Object> getHashingStats(LoggedInUser loggedInUser){
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+        if(!loggedInUser.getRole().equals("manager")){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to view the hashing statistics!");
+        }
+        return ResponseEntity.ok(userService.getHashingStats());
+    }
+
+    /**
+     * Handles HTTP GET request for the logged in user, from the HTTP session or the signed token.
+     * Used by the reactive read API (P1ReactiveReads) to check the cookies it is sent.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @return ResponseEntity containing the userId and role of the logged in user, or a 401 if nobody is logged in.
+     */
+    @GetMapping("/session")
+    public ResponseEntity<Object> getSession(LoggedInUser loggedInUser){
+        if(loggedInUser == null){
+            return ResponseEntity.status(401).body("First, you must be logged in!");
+        }
+        return ResponseEntity.ok(new OutgoingSessionDTO(loggedInUser.getUserId(), loggedInUser.getRole()));
     }
 
 
     /**
      * Handles HTTP DELETE request for deleting a user by ID.
-     * @param session HttpSession for performing user authentication.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
      * @param userId ID of the user to be deleted.
      * @return ResponseEntity containing the deletion status message.
      */
     @DeleteMapping("/{userId}")
-    public ResponseEntity<String> deleteUser(HttpSession session, @PathVariable int userId){
+    public ResponseEntity<String> deleteUser(LoggedInUser loggedInUser, @PathVariable int userId){
 
         //make sure the deleter is logged in and is a manager
         //make sure the user to delete actually exists, taken care of in UserService
         //make sure the deleter is not trying to delete themselves
 
         //Login check
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(401).body("First, you must be logged in!");
         }
         //Get the userId from the session
-        int sessionId = (int) session.getAttribute("userId");
+        int sessionId = loggedInUser.getUserId();
         String username = userService.getUser(userId).getUsername();
 
         //Role check
-        String role = (String) session.getAttribute("role");
+        String role = loggedInUser.getRole();
         if(!role.equals("manager")){
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to delete a user with " + role + " role!");
        }
@@ -158,19 +244,27 @@ public class UserController {
 
     /**
      * Handles HTTP GET request for retrieving user by ID.
-     * @param session HttpSession for performing user authentication.
+     * The user is sent with an ETag, a matching If-None-Match gets a 304 with no body.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
+     * @param webRequest The request, for its If-None-Match header.
      * @param userId ID of the user to be retrieved.
      * @return ResponseEntity containing the user information if found.
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(HttpSession session, @PathVariable int userId) {
+    public ResponseEntity<Object> getUser(LoggedInUser loggedInUser, WebRequest webRequest, @PathVariable int userId) {
 
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(401).body("First, you must be logged in!");
         }
 
         try {
-            return ResponseEntity.ok().body(userService.getUser(userId));
+            OutgoingUserDTO user = userService.getUser(userId);
+            // The user is already loaded, a 304 only saves sending it again
+            String etag = ETags.strong("user", user.getUserId(), user.getLastModified());
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(etag).body(user);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.ok().body(e.getMessage());
         }
@@ -178,18 +272,18 @@ public class UserController {
 
     /**
      * Handles HTTP GET request for retrieving all users.
-     * @param session HttpSession for performing user authentication.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
      * @return ResponseEntity containing the list of all users.
      */
     @GetMapping
-    public ResponseEntity<?> getAllUsers(HttpSession session){
+    public ResponseEntity<?> getAllUsers(LoggedInUser loggedInUser){
 
-        if(session.getAttribute("userId") == null){
+        if(loggedInUser == null){
             return ResponseEntity.status(401).body("First, you must be logged in!");
         }
 
         //Role check
-        String role = (String) session.getAttribute("role");
+        String role = loggedInUser.getRole();
         if(!role.equals("manager")){
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You do not have permission to view all users with " + role + " role!");
         }
@@ -204,14 +298,14 @@ public class UserController {
 
     /**
      * Handles HTTP PATCH request for updating user role.
-     * @param session HttpSession for performing user authentication.
+     * @param loggedInUser The logged in user, or null if nobody is logged in.
      * @param userId ID of the user whose role is to be updated.
      * @param role New role to be assigned to the user.
      * @return ResponseEntity containing the role update status message.
      */
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateRole(HttpSession session, @PathVariable int userId, @RequestBody String role){
-        if(session.getAttribute("userId") == null){
+    public ResponseEntity<Object> updateRole(LoggedInUser loggedInUser, @PathVariable int userId, @RequestBody String role){
+        if(loggedInUser == null){
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You must be logged in to update a user's role.");
             //return ResponseEntity.status(401).body("First, you must be logged in!");
         }
@@ -0,0 +1,34 @@
+package com.revature.controllers;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC configuration of the controllers: lets them take the logged in user as a LoggedInUser parameter.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final LoggedInUserResolver loggedInUserResolver;
+
+    /**
+     * Constructor for WebConfig.
+     * @param loggedInUserResolver Fills in the LoggedInUser parameters.
+     */
+    public WebConfig(LoggedInUserResolver loggedInUserResolver) {
+        this.loggedInUserResolver = loggedInUserResolver;
+    }
+
+    /**
+     * Registers the LoggedInUser resolver.
+     * @param resolvers The argument resolvers of the controllers.
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(loggedInUserResolver);
+    }
+
+}
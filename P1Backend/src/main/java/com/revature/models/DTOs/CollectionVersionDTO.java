@@ -0,0 +1,75 @@
+package com.revature.models.DTOs;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) used for the version of a reimbursement listing: how many rows it has
+ * and when the latest of them was written. Any insert, update or delete in the listing changes one of the two,
+ * so it is read with one aggregate query to build the listing's ETag, without reading the rows.
+ */
+public class CollectionVersionDTO {
+
+    private long count;
+    private Instant lastModified;
+
+    /**
+     * Default constructor.
+     */
+    public CollectionVersionDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize CollectionVersionDTO with count and lastModified.
+     * Also used by ReimbursementDAO to build the version straight from a count/max query.
+     * @param count The number of rows in the listing.
+     * @param lastModified The latest modification time in the listing, null if it is empty.
+     */
+    public CollectionVersionDTO(long count, Instant lastModified) {
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Getter for count.
+     * @return The number of rows in the listing.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Setter for count.
+     * @param count The number of rows in the listing.
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Getter for lastModified.
+     * @return The latest modification time in the listing, null if it is empty.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Setter for lastModified.
+     * @param lastModified The latest modification time in the listing.
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the CollectionVersionDTO object.
+     */
+    @Override
+    public String toString() {
+        return "CollectionVersionDTO{" +
+                "count=" + count +
+                ", lastModified=" + lastModified +
+                '}';
+    }
+}
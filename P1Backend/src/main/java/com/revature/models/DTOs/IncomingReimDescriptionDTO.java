@@ -0,0 +1,51 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for the body of an incoming description edit of one reimbursement.
+ * Contains the description to set, the reimbursement is the one in the path.
+ */
+public class IncomingReimDescriptionDTO {
+
+    private String description;
+
+    /**
+     * Default constructor.
+     */
+    public IncomingReimDescriptionDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize IncomingReimDescriptionDTO with description.
+     * @param description The description to set on the reimbursement.
+     */
+    public IncomingReimDescriptionDTO(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Getter for description.
+     * @return The description to set on the reimbursement.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Setter for description.
+     * @param description The description to set on the reimbursement.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the IncomingReimDescriptionDTO object.
+     */
+    @Override
+    public String toString() {
+        return "IncomingReimDescriptionDTO{" +
+                "description='" + description + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for an incoming JSON Merge Patch (application/merge-patch+json) of a reimbursement.
+ * Contains the description, status and amount to set, a field left out of the patch is left unchanged.
+ *
+ * Merge Patch tells "left out" (unchanged) from "null" (remove), so every setter also records that its field was sent:
+ * Jackson calls it for a field sent as null too. None of these fields can be removed, the service refuses a null.
+ */
+public class IncomingReimPatchDTO {
+
+    private String description;
+    private String status;
+    private Integer amount;
+
+    private boolean descriptionSent;
+    private boolean statusSent;
+    private boolean amountSent;
+
+    /**
+     * Default constructor.
+     */
+    public IncomingReimPatchDTO() {
+    }
+
+    /**
+     * Getter for description.
+     * @return The description to set, or null.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Setter for description, also records that the patch holds a description.
+     * @param description The description to set.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionSent = true;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status to set, or null.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status, also records that the patch holds a status.
+     * @param status The status to set.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+        this.statusSent = true;
+    }
+
+    /**
+     * Getter for amount.
+     * @return The amount to set, or null.
+     */
+    public Integer getAmount() {
+        return amount;
+    }
+
+    /**
+     * Setter for amount, also records that the patch holds an amount.
+     * @param amount The amount to set.
+     */
+    public void setAmount(Integer amount) {
+        this.amount = amount;
+        this.amountSent = true;
+    }
+
+    /**
+     * Tells if the patch holds a description.
+     * @return True if the description was sent, even as null.
+     */
+    public boolean hasDescription() {
+        return descriptionSent;
+    }
+
+    /**
+     * Tells if the patch holds a status.
+     * @return True if the status was sent, even as null.
+     */
+    public boolean hasStatus() {
+        return statusSent;
+    }
+
+    /**
+     * Tells if the patch holds an amount.
+     * @return True if the amount was sent, even as null.
+     */
+    public boolean hasAmount() {
+        return amountSent;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the IncomingReimPatchDTO object.
+     */
+    @Override
+    public String toString() {
+        return "IncomingReimPatchDTO{" +
+                "description='" + description + '\'' +
+                ", status='" + status + '\'' +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for the body of an incoming status change of one reimbursement.
+ * Contains the status to set, the reimbursement is the one in the path.
+ */
+public class IncomingReimStatusDTO {
+
+    private String status;
+
+    /**
+     * Default constructor.
+     */
+    public IncomingReimStatusDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize IncomingReimStatusDTO with status.
+     * @param status The status to set on the reimbursement.
+     */
+    public IncomingReimStatusDTO(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status to set on the reimbursement.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status to set on the reimbursement.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the IncomingReimStatusDTO object.
+     */
+    @Override
+    public String toString() {
+        return "IncomingReimStatusDTO{" +
+                "status='" + status + '\'' +
+                '}';
+    }
+}
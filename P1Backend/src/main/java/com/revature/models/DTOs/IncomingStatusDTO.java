@@ -0,0 +1,71 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for incoming status changes in a bulk approve/deny request.
+ * Contains the ID of the reimbursement and the status to set on it.
+ */
+public class IncomingStatusDTO {
+
+    private int reimbId;
+    private String status;
+
+    /**
+     * Default constructor.
+     */
+    public IncomingStatusDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize IncomingStatusDTO with reimbId and status.
+     * @param reimbId The ID of the reimbursement.
+     * @param status The status to set on the reimbursement.
+     */
+    public IncomingStatusDTO(int reimbId, String status) {
+        this.reimbId = reimbId;
+        this.status = status;
+    }
+
+    /**
+     * Getter for reimbId.
+     * @return The ID of the reimbursement.
+     */
+    public int getReimbId() {
+        return reimbId;
+    }
+
+    /**
+     * Setter for reimbId.
+     * @param reimbId The ID of the reimbursement.
+     */
+    public void setReimbId(int reimbId) {
+        this.reimbId = reimbId;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status to set on the reimbursement.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status to set on the reimbursement.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the IncomingStatusDTO object.
+     */
+    @Override
+    public String toString() {
+        return "IncomingStatusDTO{" +
+                "reimbId=" + reimbId +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
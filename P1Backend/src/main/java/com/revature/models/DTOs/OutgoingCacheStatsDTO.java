@@ -0,0 +1,151 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for sending the statistics of the reimbursement listing cache.
+ * Contains the number of cached pages, hits, misses, hit rate, evictions (size and TTL) and invalidations (writes).
+ */
+public class OutgoingCacheStatsDTO {
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long invalidationCount;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingCacheStatsDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingCacheStatsDTO with all statistics.
+     * @param size The approximate number of cached pages.
+     * @param hitCount The number of requests served from the cache.
+     * @param missCount The number of requests that loaded from the database.
+     * @param hitRate The ratio of hits to requests.
+     * @param evictionCount The number of pages evicted because of the size bound or the TTL.
+     * @param invalidationCount The number of pages invalidated by writes.
+     */
+    public OutgoingCacheStatsDTO(long size, long hitCount, long missCount, double hitRate, long evictionCount, long invalidationCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    /**
+     * Getter for size.
+     * @return The approximate number of cached pages.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Setter for size.
+     * @param size The approximate number of cached pages.
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Getter for hitCount.
+     * @return The number of requests served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Setter for hitCount.
+     * @param hitCount The number of requests served from the cache.
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Getter for missCount.
+     * @return The number of requests that loaded from the database.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Setter for missCount.
+     * @param missCount The number of requests that loaded from the database.
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Getter for hitRate.
+     * @return The ratio of hits to requests.
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * Setter for hitRate.
+     * @param hitRate The ratio of hits to requests.
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    /**
+     * Getter for evictionCount.
+     * @return The number of pages evicted because of the size bound or the TTL.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Setter for evictionCount.
+     * @param evictionCount The number of pages evicted because of the size bound or the TTL.
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Getter for invalidationCount.
+     * @return The number of pages invalidated by writes.
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Setter for invalidationCount.
+     * @param invalidationCount The number of pages invalidated by writes.
+     */
+    public void setInvalidationCount(long invalidationCount) {
+        this.invalidationCount = invalidationCount;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingCacheStatsDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingCacheStatsDTO{" +
+                "size=" + size +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", hitRate=" + hitRate +
+                ", evictionCount=" + evictionCount +
+                ", invalidationCount=" + invalidationCount +
+                '}';
+    }
+}
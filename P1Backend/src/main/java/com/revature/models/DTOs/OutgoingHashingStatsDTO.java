@@ -0,0 +1,111 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for sending the statistics of the password hashing threads.
+ * Contains the number of hashes waiting for a thread (the queue depth) and running, and the number completed and rejected.
+ */
+public class OutgoingHashingStatsDTO {
+
+    private int queued;
+    private int active;
+    private long completedCount;
+    private long rejectedCount;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingHashingStatsDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingHashingStatsDTO with all statistics.
+     * @param queued The number of hashes waiting for a thread.
+     * @param active The number of hashes running.
+     * @param completedCount The number of hashes completed.
+     * @param rejectedCount The number of hashes refused because the queue was full.
+     */
+    public OutgoingHashingStatsDTO(int queued, int active, long completedCount, long rejectedCount) {
+        this.queued = queued;
+        this.active = active;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Getter for queued.
+     * @return The number of hashes waiting for a thread.
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Setter for queued.
+     * @param queued The number of hashes waiting for a thread.
+     */
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * Getter for active.
+     * @return The number of hashes running.
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * Setter for active.
+     * @param active The number of hashes running.
+     */
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    /**
+     * Getter for completedCount.
+     * @return The number of hashes completed.
+     */
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Setter for completedCount.
+     * @param completedCount The number of hashes completed.
+     */
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    /**
+     * Getter for rejectedCount.
+     * @return The number of hashes refused because the queue was full.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Setter for rejectedCount.
+     * @param rejectedCount The number of hashes refused because the queue was full.
+     */
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingHashingStatsDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingHashingStatsDTO{" +
+                "queued=" + queued +
+                ", active=" + active +
+                ", completedCount=" + completedCount +
+                ", rejectedCount=" + rejectedCount +
+                '}';
+    }
+}
@@ -0,0 +1,233 @@
+package com.revature.models.DTOs;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) used for sending the progress of a CSV import of historical reimbursements.
+ * Contains the job status, row counters and the errors of the first rejected rows.
+ */
+public class OutgoingImportJobDTO {
+
+    private String jobId;
+    private String fileName;
+    private String status;
+    private String message;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private List<String> errors;
+    private String createdAt;
+    private String finishedAt;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingImportJobDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingImportJobDTO with all fields.
+     * @param jobId The ID of the import job.
+     * @param fileName The name of the uploaded file.
+     * @param status The status of the job: QUEUED, RUNNING, COMPLETED or FAILED.
+     * @param message Why the job failed, or null.
+     * @param rowsRead The number of rows read from the file so far.
+     * @param rowsImported The number of rows written to the database so far.
+     * @param rowsFailed The number of rows rejected so far.
+     * @param errors The errors of the first rejected rows.
+     * @param createdAt When the job was created.
+     * @param finishedAt When the job finished, or null while it is running.
+     */
+    public OutgoingImportJobDTO(String jobId, String fileName, String status, String message, long rowsRead, long rowsImported, long rowsFailed, List<String> errors, String createdAt, String finishedAt) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.status = status;
+        this.message = message;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsFailed = rowsFailed;
+        this.errors = errors;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Getter for jobId.
+     * @return The ID of the import job.
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Setter for jobId.
+     * @param jobId The ID of the import job.
+     */
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Getter for fileName.
+     * @return The name of the uploaded file.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Setter for fileName.
+     * @param fileName The name of the uploaded file.
+     */
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status of the job: QUEUED, RUNNING, COMPLETED or FAILED.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status of the job: QUEUED, RUNNING, COMPLETED or FAILED.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for message.
+     * @return Why the job failed, or null.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for message.
+     * @param message Why the job failed, or null.
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Getter for rowsRead.
+     * @return The number of rows read from the file so far.
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Setter for rowsRead.
+     * @param rowsRead The number of rows read from the file so far.
+     */
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    /**
+     * Getter for rowsImported.
+     * @return The number of rows written to the database so far.
+     */
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * Setter for rowsImported.
+     * @param rowsImported The number of rows written to the database so far.
+     */
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    /**
+     * Getter for rowsFailed.
+     * @return The number of rows rejected so far.
+     */
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    /**
+     * Setter for rowsFailed.
+     * @param rowsFailed The number of rows rejected so far.
+     */
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    /**
+     * Getter for errors.
+     * @return The errors of the first rejected rows.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Setter for errors.
+     * @param errors The errors of the first rejected rows.
+     */
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Getter for createdAt.
+     * @return When the job was created.
+     */
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Setter for createdAt.
+     * @param createdAt When the job was created.
+     */
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Getter for finishedAt.
+     * @return When the job finished, or null while it is running.
+     */
+    public String getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Setter for finishedAt.
+     * @param finishedAt When the job finished, or null while it is running.
+     */
+    public void setFinishedAt(String finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingImportJobDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingImportJobDTO{" +
+                "jobId='" + jobId + '\'' +
+                ", fileName='" + fileName + '\'' +
+                ", status='" + status + '\'' +
+                ", message='" + message + '\'' +
+                ", rowsRead=" + rowsRead +
+                ", rowsImported=" + rowsImported +
+                ", rowsFailed=" + rowsFailed +
+                ", errors=" + errors +
+                ", createdAt='" + createdAt + '\'' +
+                ", finishedAt='" + finishedAt + '\'' +
+                '}';
+    }
+}
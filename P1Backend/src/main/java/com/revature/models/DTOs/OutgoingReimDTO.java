@@ -1,8 +1,10 @@
 package com.revature.models.DTOs;
 
+import java.time.Instant;
+
 /**
  * Data Transfer Object (DTO) used for sending Reimbursement data with limited fields.
- * OutgoingReimDTO contains only reimbId, description, amount, status, and userId.
+ * OutgoingReimDTO contains only reimbId, description, amount, status, userId, submittedAt and version.
  * This DTO is designed to avoid sending the entire User object, keeping the password safe and preventing recursive issues.
  */
 public class OutgoingReimDTO {
@@ -12,6 +14,8 @@ public class OutgoingReimDTO {
     private String status;
     private int amount;
     private int userId;
+    private Instant submittedAt;
+    private long version;
 
     /**
      * Default constructor.
@@ -35,6 +39,37 @@ public class OutgoingReimDTO {
         this.userId =userId;
     }
 
+    /**
+     * Parameterized constructor to initialize OutgoingReimDTO with reimbId, description, status, amount, userId and submittedAt.
+     * @param reimbId The ID of the reimbursement.
+     * @param description The description of the reimbursement.
+     * @param status The status of the reimbursement.
+     * @param amount The amount of the reimbursement.
+     * @param userId The ID of the user associated with the reimbursement.
+     * @param submittedAt When the reimbursement was submitted.
+     */
+    public OutgoingReimDTO(int reimbId, String description, String status, int amount, int userId, Instant submittedAt) {
+        this(reimbId, description, status, amount, userId);
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingReimDTO with all fields.
+     * Also used by ReimbursementDAO to build the DTOs straight from a query.
+     * @param reimbId The ID of the reimbursement.
+     * @param description The description of the reimbursement.
+     * @param status The status of the reimbursement.
+     * @param amount The amount of the reimbursement.
+     * @param userId The ID of the user associated with the reimbursement.
+     * @param submittedAt When the reimbursement was submitted.
+     * @param version The version of the reimbursement, sent back in If-Match to edit it.
+     */
+    public OutgoingReimDTO(int reimbId, String description, String status, int amount, int userId, Instant submittedAt,
+                           long version) {
+        this(reimbId, description, status, amount, userId, submittedAt);
+        this.version = version;
+    }
+
     /**
      * Parameterized constructor to initialize OutgoingReimDTO with reimbId, description, status, and amount.
      * @param reimbId The ID of the reimbursement.
@@ -129,6 +164,38 @@ public class OutgoingReimDTO {
         this.amount = amount;
     }
 
+    /**
+     * Getter for submittedAt.
+     * @return When the reimbursement was submitted.
+     */
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Setter for submittedAt.
+     * @param submittedAt When the reimbursement was submitted.
+     */
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Getter for version.
+     * @return The version of the reimbursement, sent back in If-Match to edit it.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for version.
+     * @param version The version of the reimbursement.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Overrides the default toString method to provide a string representation of the object.
      * @return A string representation of the OutgoingReimDTO object.
@@ -140,6 +207,8 @@ public class OutgoingReimDTO {
                 ", description='" + description + '\'' +
                 ", status='" + status + '\'' +
                 ", amount=" + amount +
+                ", submittedAt=" + submittedAt +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
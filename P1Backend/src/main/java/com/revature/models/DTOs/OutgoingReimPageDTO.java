@@ -0,0 +1,74 @@
+package com.revature.models.DTOs;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) used for sending one page of reimbursements.
+ * Contains the reimbursements of the current page and an opaque cursor for the next page.
+ * The next cursor is null once the last page has been reached.
+ */
+public class OutgoingReimPageDTO {
+
+    private List<OutgoingReimDTO> reimbursements;
+    private String next;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingReimPageDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingReimPageDTO with reimbursements and next cursor.
+     * @param reimbursements The reimbursements of the current page.
+     * @param next The cursor of the next page, or null if this is the last page.
+     */
+    public OutgoingReimPageDTO(List<OutgoingReimDTO> reimbursements, String next) {
+        this.reimbursements = reimbursements;
+        this.next = next;
+    }
+
+    /**
+     * Getter for reimbursements.
+     * @return The reimbursements of the current page.
+     */
+    public List<OutgoingReimDTO> getReimbursements() {
+        return reimbursements;
+    }
+
+    /**
+     * Setter for reimbursements.
+     * @param reimbursements The reimbursements of the current page.
+     */
+    public void setReimbursements(List<OutgoingReimDTO> reimbursements) {
+        this.reimbursements = reimbursements;
+    }
+
+    /**
+     * Getter for next.
+     * @return The cursor of the next page, or null if this is the last page.
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Setter for next.
+     * @param next The cursor of the next page.
+     */
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingReimPageDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingReimPageDTO{" +
+                "reimbursements=" + reimbursements +
+                ", next='" + next + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,152 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for sending one row of the slow statement table.
+ * Contains the SQL of the statement, how many times it was slow, its total and worst time,
+ * and the shape of the parameters and the origin of its latest slow run.
+ */
+public class OutgoingSlowQueryDTO {
+
+    private String sql;
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+    private String parameters;
+    private String origin;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingSlowQueryDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingSlowQueryDTO with all fields.
+     * @param sql The SQL of the statement, with its ? placeholders.
+     * @param count The number of slow runs.
+     * @param totalMillis The total time of the slow runs, in milliseconds.
+     * @param maxMillis The time of the slowest run, in milliseconds.
+     * @param parameters The types of the parameters of the latest slow run, never their values.
+     * @param origin The controller method (or thread) the latest slow run came from.
+     */
+    public OutgoingSlowQueryDTO(String sql, long count, long totalMillis, long maxMillis, String parameters, String origin) {
+        this.sql = sql;
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.parameters = parameters;
+        this.origin = origin;
+    }
+
+    /**
+     * Getter for sql.
+     * @return The SQL of the statement.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Setter for sql.
+     * @param sql The SQL of the statement.
+     */
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Getter for count.
+     * @return The number of slow runs.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Setter for count.
+     * @param count The number of slow runs.
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Getter for totalMillis.
+     * @return The total time of the slow runs, in milliseconds.
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Setter for totalMillis.
+     * @param totalMillis The total time of the slow runs, in milliseconds.
+     */
+    public void setTotalMillis(long totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * Getter for maxMillis.
+     * @return The time of the slowest run, in milliseconds.
+     */
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Setter for maxMillis.
+     * @param maxMillis The time of the slowest run, in milliseconds.
+     */
+    public void setMaxMillis(long maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Getter for parameters.
+     * @return The types of the parameters of the latest slow run.
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Setter for parameters.
+     * @param parameters The types of the parameters of the latest slow run.
+     */
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * Getter for origin.
+     * @return The controller method (or thread) the latest slow run came from.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Setter for origin.
+     * @param origin The controller method (or thread) the latest slow run came from.
+     */
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingSlowQueryDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingSlowQueryDTO{" +
+                "sql='" + sql + '\'' +
+                ", count=" + count +
+                ", totalMillis=" + totalMillis +
+                ", maxMillis=" + maxMillis +
+                ", parameters='" + parameters + '\'' +
+                ", origin='" + origin + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package com.revature.models.DTOs;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Data Transfer Object (DTO) used for sending the spend of one user in one month for one status.
+ * Contains the ID of the user, the month (yyyy-MM), the status, the number of reimbursements and their total amount.
+ */
+public class OutgoingSpendRollupDTO {
+
+    private int userId;
+    private String month;
+    private String status;
+    private long count;
+    private long totalAmount;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingSpendRollupDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingSpendRollupDTO with all attributes.
+     * Also used by SpendRollupDAO to build the DTOs straight from the selected columns.
+     * @param userId The ID of the user.
+     * @param month The first day of the month.
+     * @param status The status of the reimbursements.
+     * @param count The number of reimbursements.
+     * @param totalAmount The sum of their amounts.
+     */
+    public OutgoingSpendRollupDTO(int userId, LocalDate month, String status, long count, long totalAmount) {
+        this.userId = userId;
+        this.month = YearMonth.from(month).toString();
+        this.status = status;
+        this.count = count;
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Setter for userId.
+     * @param userId The ID of the user.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Getter for month.
+     * @return The month, as yyyy-MM.
+     */
+    public String getMonth() {
+        return month;
+    }
+
+    /**
+     * Setter for month.
+     * @param month The month, as yyyy-MM.
+     */
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status of the reimbursements.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status of the reimbursements.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for count.
+     * @return The number of reimbursements.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Setter for count.
+     * @param count The number of reimbursements.
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Getter for totalAmount.
+     * @return The sum of the amounts of the reimbursements.
+     */
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Setter for totalAmount.
+     * @param totalAmount The sum of the amounts of the reimbursements.
+     */
+    public void setTotalAmount(long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingSpendRollupDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingSpendRollupDTO{" +
+                "userId=" + userId +
+                ", month='" + month + '\'' +
+                ", status='" + status + '\'' +
+                ", count=" + count +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for sending the result of one item of a bulk approve/deny request.
+ * Contains the ID of the reimbursement, the requested status and what happened to it:
+ * UPDATED, NOT_FOUND, ALREADY_IN_STATUS, INVALID_STATUS or DUPLICATE (the ID was already in the request).
+ */
+public class OutgoingStatusResultDTO {
+
+    private int reimbId;
+    private String status;
+    private String result;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingStatusResultDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingStatusResultDTO with reimbId, status and result.
+     * @param reimbId The ID of the reimbursement.
+     * @param status The requested status.
+     * @param result What happened to the reimbursement.
+     */
+    public OutgoingStatusResultDTO(int reimbId, String status, String result) {
+        this.reimbId = reimbId;
+        this.status = status;
+        this.result = result;
+    }
+
+    /**
+     * Getter for reimbId.
+     * @return The ID of the reimbursement.
+     */
+    public int getReimbId() {
+        return reimbId;
+    }
+
+    /**
+     * Setter for reimbId.
+     * @param reimbId The ID of the reimbursement.
+     */
+    public void setReimbId(int reimbId) {
+        this.reimbId = reimbId;
+    }
+
+    /**
+     * Getter for status.
+     * @return The requested status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The requested status.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for result.
+     * @return What happened to the reimbursement.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Setter for result.
+     * @param result What happened to the reimbursement.
+     */
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingStatusResultDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingStatusResultDTO{" +
+                "reimbId=" + reimbId +
+                ", status='" + status + '\'' +
+                ", result='" + result + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for sending the statistics of one reimbursement status.
+ * Contains the status, the number of reimbursements in it and the sum of their amounts.
+ */
+public class OutgoingStatusStatsDTO {
+
+    private String status;
+    private long count;
+    private long totalAmount;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingStatusStatsDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingStatusStatsDTO with status, count and totalAmount.
+     * Also used by ReimbursementDAO to build the statistics straight from a GROUP BY query.
+     * @param status The status.
+     * @param count The number of reimbursements with the status.
+     * @param totalAmount The sum of the amounts of the reimbursements with the status.
+     */
+    public OutgoingStatusStatsDTO(String status, long count, long totalAmount) {
+        this.status = status;
+        this.count = count;
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for count.
+     * @return The number of reimbursements with the status.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Setter for count.
+     * @param count The number of reimbursements with the status.
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Getter for totalAmount.
+     * @return The sum of the amounts of the reimbursements with the status.
+     */
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Setter for totalAmount.
+     * @param totalAmount The sum of the amounts of the reimbursements with the status.
+     */
+    public void setTotalAmount(long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingStatusStatsDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingStatusStatsDTO{" +
+                "status='" + status + '\'' +
+                ", count=" + count +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
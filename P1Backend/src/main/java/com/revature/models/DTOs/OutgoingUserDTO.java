@@ -1,8 +1,10 @@
 package com.revature.models.DTOs;
 
+import java.time.Instant;
+
 /**
  * Data Transfer Object (DTO) used for sending limited user information to the front end.
- * OutgoingUserDTO contains only userId, username, and role.
+ * OutgoingUserDTO contains only userId, username, role and lastModified.
  * This DTO is designed to avoid sending the user's password over HTTP.
  */
 public class OutgoingUserDTO {
@@ -10,6 +12,7 @@ public class OutgoingUserDTO {
     private int userId;
     private String username;
     private String role;
+    private Instant lastModified;
 
     /**
      * Default constructor.
@@ -77,6 +80,22 @@ public class OutgoingUserDTO {
         this.role = role;
     }
 
+    /**
+     * Getter for lastModified.
+     * @return The last time the user was written.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Setter for lastModified.
+     * @param lastModified The last time the user was written.
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     /**
      * Overrides the default toString method to provide a string representation of the object.
      * @return A string representation of the OutgoingUserDTO object.
@@ -87,6 +106,7 @@ public class OutgoingUserDTO {
                 "userId=" + userId +
                 ", username='" + username + '\'' +
                 ", role='" + role + '\'' +
+                ", lastModified=" + lastModified +
                 '}';
     }
 }
@@ -0,0 +1,94 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) holding what login needs to know about a user: the userId and role to log in with,
+ * and the stored credential to check the password against.
+ * Built by UserDAO straight from a query, so login never loads the User entity or anything attached to it.
+ * It holds the stored password, never send it out of the backend.
+ */
+public class UserCredentialDTO {
+
+    private int userId;
+    private String role;
+    private String credential;
+
+    /**
+     * Default constructor.
+     */
+    public UserCredentialDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize UserCredentialDTO with all fields.
+     * Also used by UserDAO to build the DTO straight from a query.
+     * @param userId The ID of the user.
+     * @param role The role of the user.
+     * @param credential The stored password: a bcrypt hash, or plain text for users not logged in since hashing came in.
+     */
+    public UserCredentialDTO(int userId, String role, String credential) {
+        this.userId = userId;
+        this.role = role;
+        this.credential = credential;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Setter for userId.
+     * @param userId The ID of the user.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Getter for role.
+     * @return The role of the user.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Setter for role.
+     * @param role The role of the user.
+     */
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    /**
+     * Getter for credential.
+     * @return The stored password.
+     */
+    public String getCredential() {
+        return credential;
+    }
+
+    /**
+     * Setter for credential.
+     * @param credential The stored password.
+     */
+    public void setCredential(String credential) {
+        this.credential = credential;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * The credential is left out, so it never ends up in a log.
+     * @return A string representation of the UserCredentialDTO object.
+     */
+    @Override
+    public String toString() {
+        return "UserCredentialDTO{" +
+                "userId=" + userId +
+                ", role='" + role + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.revature.models;
+
+/**
+ * The user a request is made by: the userId and role stored in the HTTP session at login,
+ * or carried by the signed token of token mode. Controllers take it as a parameter, it is null
+ * when nobody is logged in.
+ */
+public class LoggedInUser {
+
+    // Request attribute the token filter stores the user of a valid token in
+    public static final String ATTRIBUTE = LoggedInUser.class.getName();
+
+    private final int userId;
+    private final String role;
+
+    /**
+     * Parameterized constructor to initialize LoggedInUser with userId and role.
+     * @param userId The ID of the logged in user.
+     * @param role The role of the logged in user.
+     */
+    public LoggedInUser(int userId, String role) {
+        this.userId = userId;
+        this.role = role;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the logged in user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Getter for role.
+     * @return The role of the logged in user.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the LoggedInUser object.
+     */
+    @Override
+    public String toString() {
+        return "LoggedInUser{" +
+                "userId=" + userId +
+                ", role='" + role + '\'' +
+                '}';
+    }
+}
@@ -3,6 +3,8 @@ package com.revature.models;
 import jakarta.persistence.*;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
 // We will create a frontend interface to model reimbursement
 // without id but with name, status, user
 
@@ -12,28 +14,53 @@ import org.springframework.stereotype.Component;
  */
 @Component
 @Entity
+// The table, its constraints and its indexes are created by the migrations in src/main/resources/db/migration
 @Table(name="reimbursement")
+@NamedEntityGraph(name = "Reimbursement.user", attributeNodes = @NamedAttributeNode("user"))
 public class Reimbursement {
 
+    // IDs come from a pooled sequence instead of IDENTITY: Hibernate gets 50 IDs per sequence call
+    // and can send inserts in JDBC batches, which IDENTITY does not allow.
+    // The V4 migration starts the sequence past the IDs the identity column gave.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reimbursement_seq")
+    @SequenceGenerator(name = "reimbursement_seq", sequenceName = "reimbursement_seq", allocationSize = 50)
     private int reimbId;
     private String description;
+    // Stored as its ReimbursementStatus code (a smallint), read and written as the status name
+    @Convert(converter = ReimbursementStatusConverter.class)
     private String status= "PENDING";
     private int amount;
 
+    // When the reimbursement was submitted, the monthly spend rollups are grouped by it (in UTC).
+    // Rows created before this column existed got the time of the upgrade (V2 migration).
+    @Column(updatable = false)
+    private Instant submittedAt = Instant.now();
+
+    // Last time the row was written. With the row count, the latest lastModified of a listing
+    // changes on every insert, update and delete in it, so it gives the listing's ETag without reading the rows
+    private Instant lastModified = Instant.now();
+
+    // Optimistic lock: every UPDATE checks and bumps it, so two editors can't silently overwrite each other.
+    // Rows created before this column existed start at 0 (V2 migration).
+    @Version
+    private long version;
+
     // Many reimbursements can belong to a user,
     // we put @OnetoMany relationship from User side
     // We need @ManytoOne relationship from reimbursement side for complementary
     // We did not specify the CASCADE type
     // We only specified cascade one side which is User side.
     // We can delete a reimbursement without worrying user now.
+    // The user is LAZY: reading the owner's id does not load the owner,
+    // call sites that need the whole owner use the "Reimbursement.user" entity graph.
 
     /**
      * Many reimbursements can belong to a user.
      * We establish a Many-to-One relationship from the reimbursement side.
+     * The user is loaded lazily, only when one of its fields other than the ID is accessed.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="userId") //foreign key
     private User user;
 
@@ -137,6 +164,64 @@ public class Reimbursement {
         this.amount = amount;
     }
 
+    /**
+     * Getter for submittedAt.
+     * @return When the reimbursement was submitted.
+     */
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Setter for submittedAt.
+     * @param submittedAt When the reimbursement was submitted.
+     */
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Getter for lastModified.
+     * @return The last time the reimbursement was written.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Setter for lastModified.
+     * @param lastModified The last time the reimbursement was written.
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Getter for version.
+     * @return The version of the reimbursement, bumped by every update.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for version.
+     * @param version The version of the reimbursement.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Stamps the row with the current time whenever Hibernate inserts or updates it.
+     * Bulk UPDATE statements bypass this and set lastModified themselves.
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
+
     /**
      * Getter for user.
      * @return The user associated with the reimbursement.
@@ -164,6 +249,9 @@ public class Reimbursement {
                 ", description='" + description + '\'' +
                 ", status='" + status + '\'' +
                 ", amount=" + amount +
+                ", submittedAt=" + submittedAt +
+                ", lastModified=" + lastModified +
+                ", version=" + version +
                 ", user=" + user +
                 '}';
     }
@@ -0,0 +1,65 @@
+package com.revature.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The statuses a reimbursement can have, and the small integer each one is stored as.
+ * The status column holds the code instead of the name: two bytes per row and per index entry instead of a string,
+ * and a check constraint keeps anything else out. The codes are stored, never change or reuse one, only add new ones.
+ *
+ * The names are what the API, the caches and the rollups use, ReimbursementStatusConverter turns them into codes
+ * on the way to the database and back.
+ */
+public enum ReimbursementStatus {
+
+    PENDING((short) 0),
+    APPROVED((short) 1),
+    DENIED((short) 2);
+
+    // Every status name, in listing order
+    public static final List<String> NAMES = Arrays.stream(values()).map(Enum::name).toList();
+
+    private final short code;
+
+    /**
+     * Constructor for ReimbursementStatus.
+     * @param code The code stored in the status column.
+     */
+    ReimbursementStatus(short code) {
+        this.code = code;
+    }
+
+    /**
+     * Getter for code.
+     * @return The code stored in the status column.
+     */
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Checks a status name.
+     * @param name The name to check, may be null.
+     * @return True if a reimbursement can have this status.
+     */
+    public static boolean isStatus(String name) {
+        return name != null && NAMES.contains(name);
+    }
+
+    /**
+     * Finds the status stored with a code.
+     * @param code The code read from the status column.
+     * @return The status.
+     * @throws IllegalArgumentException If no status has this code.
+     */
+    public static ReimbursementStatus fromCode(short code) {
+        for (ReimbursementStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("No status is stored as " + code);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.revature.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the status of a reimbursement as its ReimbursementStatus code.
+ * Hibernate also applies it to the query parameters compared with the status, so the DAO queries
+ * keep taking and returning status names.
+ */
+@Converter
+public class ReimbursementStatusConverter implements AttributeConverter<String, Short> {
+
+    /**
+     * Converts a status name to the code stored in the column.
+     * @param status The status name, or null.
+     * @return The code, or null.
+     * @throws IllegalArgumentException If the name is not a status.
+     */
+    @Override
+    public Short convertToDatabaseColumn(String status) {
+        return status == null ? null : ReimbursementStatus.valueOf(status).getCode();
+    }
+
+    /**
+     * Converts the code stored in the column to a status name.
+     * @param code The code, or null.
+     * @return The status name, or null.
+     * @throws IllegalArgumentException If no status has this code.
+     */
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : ReimbursementStatus.fromCode(code).name();
+    }
+
+}
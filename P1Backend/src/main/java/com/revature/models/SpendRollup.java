@@ -0,0 +1,149 @@
+package com.revature.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Spend of one user in one month for one status: how many reimbursements and their total amount.
+ * The finance dashboards read these rows instead of scanning the reimbursement table.
+ * Every write to a reimbursement adjusts its row in the same transaction (see SpendRollupService).
+ */
+@Entity
+@Table(name = "spend_rollup")
+@IdClass(SpendRollupId.class)
+public class SpendRollup {
+
+    // No foreign key to users: rollup rows are written on every submit and status change,
+    // and deleting a user deletes the user's rollups explicitly
+    @Id
+    private int userId;
+
+    // First day of the month, in UTC. MONTH is a reserved word in some databases
+    @Id
+    @Column(name = "spend_month")
+    private LocalDate month;
+
+    @Id
+    private String status;
+
+    private long reimbursementCount;
+    private long totalAmount;
+
+    /**
+     * Default constructor.
+     */
+    public SpendRollup() {
+    }
+
+    /**
+     * Parameterized constructor to initialize SpendRollup with all attributes.
+     * @param userId The ID of the user.
+     * @param month The first day of the month.
+     * @param status The status of the reimbursements.
+     * @param reimbursementCount The number of reimbursements.
+     * @param totalAmount The sum of their amounts.
+     */
+    public SpendRollup(int userId, LocalDate month, String status, long reimbursementCount, long totalAmount) {
+        this.userId = userId;
+        this.month = month;
+        this.status = status;
+        this.reimbursementCount = reimbursementCount;
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Setter for userId.
+     * @param userId The ID of the user.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Getter for month.
+     * @return The first day of the month.
+     */
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    /**
+     * Setter for month.
+     * @param month The first day of the month.
+     */
+    public void setMonth(LocalDate month) {
+        this.month = month;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status of the reimbursements.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status of the reimbursements.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for reimbursementCount.
+     * @return The number of reimbursements.
+     */
+    public long getReimbursementCount() {
+        return reimbursementCount;
+    }
+
+    /**
+     * Setter for reimbursementCount.
+     * @param reimbursementCount The number of reimbursements.
+     */
+    public void setReimbursementCount(long reimbursementCount) {
+        this.reimbursementCount = reimbursementCount;
+    }
+
+    /**
+     * Getter for totalAmount.
+     * @return The sum of the amounts of the reimbursements.
+     */
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Setter for totalAmount.
+     * @param totalAmount The sum of the amounts of the reimbursements.
+     */
+    public void setTotalAmount(long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the SpendRollup object.
+     */
+    @Override
+    public String toString() {
+        return "SpendRollup{" +
+                "userId=" + userId +
+                ", month=" + month +
+                ", status='" + status + '\'' +
+                ", reimbursementCount=" + reimbursementCount +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
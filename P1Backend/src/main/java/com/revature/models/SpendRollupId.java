@@ -0,0 +1,82 @@
+package com.revature.models;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Primary key of a SpendRollup row: one user, one month, one status.
+ */
+public class SpendRollupId implements Serializable {
+
+    private int userId;
+    private LocalDate month;
+    private String status;
+
+    /**
+     * Default constructor.
+     */
+    public SpendRollupId() {
+    }
+
+    /**
+     * Parameterized constructor to initialize SpendRollupId with userId, month and status.
+     * @param userId The ID of the user.
+     * @param month The first day of the month.
+     * @param status The status of the reimbursements.
+     */
+    public SpendRollupId(int userId, LocalDate month, String status) {
+        this.userId = userId;
+        this.month = month;
+        this.status = status;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Getter for month.
+     * @return The first day of the month.
+     */
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status of the reimbursements.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SpendRollupId that)) return false;
+        return userId == that.userId && Objects.equals(month, that.month) && Objects.equals(status, that.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, month, status);
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the SpendRollupId object.
+     */
+    @Override
+    public String toString() {
+        return "SpendRollupId{" +
+                "userId=" + userId +
+                ", month=" + month +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
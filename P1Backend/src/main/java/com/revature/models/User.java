@@ -2,9 +2,11 @@ package com.revature.models;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -14,6 +16,9 @@ import java.util.List;
 @Component
 @Entity
 @Table(name="users")
+@NamedEntityGraph(name = "User.reimbursement", attributeNodes = @NamedAttributeNode("reimbursement"))
+// A lazily loaded user is a Hibernate proxy, these are the proxy's own fields and must not be serialized
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     //userId, username, password, no args, all args minus id, all args, getter/setter, tostring
 
@@ -29,6 +34,9 @@ public class User {
     private String password;
     private String role = "employee";
 
+    // Last time the row was written, the ETag of GET /users/{userId} is built from it
+    private Instant lastModified = Instant.now();
+
 
     // Setting Cascade user side with ALL this time, less work to delete
     // If we use cascade DETACH, when we delete the user
@@ -37,14 +45,17 @@ public class User {
     // This bidirectional relationships between entities will cause infinite recursion when we get a user.
     // user-> reimbursement->user -> reimbursement .. so on
     // To resolve this, you can use @JsonIgnore
+    // The list is LAZY: loading a user (for example at login) must not load the user's whole history.
+    // Call sites that really need it use the "User.reimbursement" entity graph.
 
     /**
      * Establishes a One-to-Many relationship between User and Reimbursement entities. Sets Cascade user side with ALL
      * This relationship indicates that one user can have multiple reimbursements associated with them.
      * We use @JsonIgnore to prevent infinite recursion when fetching a user with associated reimbursements.
+     * The reimbursements are loaded lazily, only when the list is accessed.
      */
     @JsonIgnore
-    @OneToMany(mappedBy = "user", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Reimbursement> reimbursement;
 
     public User() {
@@ -171,6 +182,31 @@ public class User {
         this.role = role;
     }
 
+    /**
+     * Retrieves the last time the user was written.
+     * @return The last modification time.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the last time the user was written.
+     * @param lastModified The last modification time.
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Stamps the row with the current time whenever Hibernate inserts or updates it.
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
+
     /**
      * Retrieves the list of reimbursements associated with the user.
      * @return The list of reimbursements associated with the user.
@@ -200,6 +236,7 @@ public class User {
                 ", lastName='" + lastName + '\'' +
                 ", password='" + password + '\'' +
                 ", role='" + role + '\'' +
+                ", lastModified=" + lastModified +
                 ", reimbursement=" + reimbursement +
                 '}';
     }
@@ -0,0 +1,152 @@
+package com.revature.services;
+
+import com.revature.models.LoggedInUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and checks the signed login tokens of token mode (auth.mode=token).
+ *
+ * A token is "payload.signature", both Base64url: the payload is "userId:role:expiry" (expiry in epoch seconds)
+ * and the signature its HMAC-SHA256 under auth.token.secret. Checking one needs only the secret, no session
+ * and no database lookup, so every instance sharing the secret accepts the tokens of the others and requests
+ * can go to any instance. The flip side: a token stays valid until it expires, even if the user's role changes.
+ */
+@Service
+public class AuthTokens {
+
+    // Name of the cookie the token is sent back in at login
+    public static final String COOKIE = "P1_TOKEN";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean tokenMode;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    /**
+     * Constructor for AuthTokens.
+     * @param mode session to store logged in users in the HTTP session, token to send them signed tokens.
+     * @param secret The Base64 HMAC secret, shared by every instance. Required in token mode.
+     * @param ttlMinutes How long a token is valid.
+     * @throws IllegalStateException If the mode is unknown, or token mode has no secret.
+     */
+    public AuthTokens(@Value("${auth.mode:session}") String mode,
+                      @Value("${auth.token.secret:}") String secret,
+                      @Value("${auth.token.ttl-minutes:60}") long ttlMinutes) {
+        if (!mode.equals("session") && !mode.equals("token")) {
+            throw new IllegalStateException("auth.mode must be session or token, not " + mode + "!");
+        }
+        this.tokenMode = mode.equals("token");
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+
+        byte[] secretBytes;
+        if (!secret.isBlank()) {
+            secretBytes = Base64.getDecoder().decode(secret);
+        } else if (tokenMode) {
+            throw new IllegalStateException("auth.token.secret must be set in token mode!");
+        } else {
+            // Session mode issues no tokens, a random key just makes sure none is accepted
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+        }
+        if (secretBytes.length < 32) {
+            throw new IllegalStateException("auth.token.secret must be at least 32 bytes!");
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    /**
+     * Tells if logins issue tokens rather than HTTP sessions.
+     * @return True in token mode.
+     */
+    public boolean isTokenMode() {
+        return tokenMode;
+    }
+
+    /**
+     * Issues a token for a user, valid for auth.token.ttl-minutes.
+     * @param userId The ID of the user.
+     * @param role The role of the user.
+     * @return The token.
+     */
+    public String issue(int userId, String role) {
+        long expiry = Instant.now().plus(ttl).getEpochSecond();
+        String payload = ENCODER.encodeToString((userId + ":" + role + ":" + expiry).getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Issues a token for a user in the cookie sent back at login. The cookie is HttpOnly, so scripts can't read it,
+     * and expires with the token.
+     * @param userId The ID of the user.
+     * @param role The role of the user.
+     * @return The cookie.
+     */
+    public ResponseCookie cookie(int userId, String role) {
+        return ResponseCookie.from(COOKIE, issue(userId, role))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(ttl)
+                .build();
+    }
+
+    /**
+     * Checks a token.
+     * @param token The token.
+     * @return The user the token was issued for, or empty if the token is malformed, tampered with or expired.
+     */
+    public Optional<LoggedInUser> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, dot);
+        try {
+            // Constant time comparison, so the signature can't be guessed byte by byte from response times
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+                return Optional.empty();
+            }
+            String[] fields = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":");
+            if (fields.length != 3 || Instant.now().getEpochSecond() >= Long.parseLong(fields[2])) {
+                return Optional.empty();
+            }
+            return Optional.of(new LoggedInUser(Integer.parseInt(fields[0]), fields[1]));
+        } catch (IllegalArgumentException e) {
+            // Both a bad Base64 string and a NumberFormatException end up here
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Computes the signature of a payload.
+     * @param payload The Base64url payload.
+     * @return The HMAC of the payload.
+     */
+    private byte[] sign(String payload) {
+        try {
+            // A Mac is not thread safe, a new one per token is cheap next to the HMAC itself
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
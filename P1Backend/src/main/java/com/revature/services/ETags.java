@@ -0,0 +1,53 @@
+package com.revature.services;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds strong ETags for conditional GETs (If-None-Match) from the version of what a response shows,
+ * and checks If-Match preconditions of conditional updates.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Builds a strong ETag from the parts that identify a response: what it lists, its version and its parameters.
+     * Equal parts give the same ETag, any different part gives a different one.
+     * @param parts The parts, null parts are allowed.
+     * @return The quoted ETag.
+     */
+    public static String strong(Object... parts) {
+        String key = Arrays.stream(parts).map(Objects::toString).collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Builds the ETag of a single versioned entity, the version itself, so clients can send back the version they have.
+     * @param version The @Version of the entity.
+     * @return The quoted ETag.
+     */
+    public static String version(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an If-Match header against the current ETag, with the strong comparison If-Match requires.
+     * @param ifMatch The If-Match header: null, *, or a comma separated list of ETags.
+     * @param etag The current ETag.
+     * @return True if the update can go ahead: no header, *, or one of the listed ETags is the current one.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        // Weak ETags (W/"...") never match the strong current one
+        return Arrays.stream(ifMatch.split(",")).map(String::trim).anyMatch(etag::equals);
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.revature.services;
+
+import com.revature.models.DTOs.OutgoingImportJobDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one CSV import of historical reimbursements.
+ * Chunks of the file are imported in parallel, so the counters are updated from several threads.
+ */
+public class ImportJob {
+
+    // Only the first errors are kept, a bad file must not fill the memory with error messages
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String jobId;
+    private final String fileName;
+    private final Instant createdAt = Instant.now();
+
+    private volatile String status = "QUEUED";
+    private volatile String message;
+    private volatile Instant finishedAt;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Constructor for ImportJob.
+     * @param jobId The ID of the job.
+     * @param fileName The name of the uploaded file.
+     */
+    public ImportJob(String jobId, String fileName) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Getter for jobId.
+     * @return The ID of the job.
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Marks the job as started.
+     */
+    public void start() {
+        status = "RUNNING";
+    }
+
+    /**
+     * Marks the job as finished, every row has been imported or rejected.
+     */
+    public void complete() {
+        finishedAt = Instant.now();
+        status = "COMPLETED";
+    }
+
+    /**
+     * Marks the job as failed, the file could not be read to the end.
+     * @param message The reason of the failure.
+     */
+    public void fail(String message) {
+        this.message = message;
+        finishedAt = Instant.now();
+        status = "FAILED";
+    }
+
+    /**
+     * Counts rows read from the file.
+     * @param count The number of rows.
+     */
+    public void addRowsRead(long count) {
+        rowsRead.addAndGet(count);
+    }
+
+    /**
+     * Counts rows written to the database.
+     * @param count The number of rows.
+     */
+    public void addRowsImported(long count) {
+        rowsImported.addAndGet(count);
+    }
+
+    /**
+     * Counts a rejected row and keeps its error, as long as fewer than MAX_REPORTED_ERRORS were kept.
+     * @param rowNumber The line number of the row in the file.
+     * @param error Why the row was rejected.
+     */
+    public void addError(long rowNumber, String error) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Row " + rowNumber + ": " + error);
+            }
+        }
+    }
+
+    /**
+     * Converts the current progress to an OutgoingImportJobDTO.
+     * @return The progress DTO.
+     */
+    public OutgoingImportJobDTO getImportJobDTO() {
+        List<String> reportedErrors;
+        synchronized (errors) {
+            reportedErrors = new ArrayList<>(errors);
+        }
+
+        return new OutgoingImportJobDTO(
+                jobId,
+                fileName,
+                status,
+                message,
+                rowsRead.get(),
+                rowsImported.get(),
+                rowsFailed.get(),
+                reportedErrors,
+                createdAt.toString(),
+                finishedAt == null ? null : finishedAt.toString());
+    }
+
+}
@@ -0,0 +1,408 @@
+package com.revature.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revature.DAOs.UserDAO;
+import com.revature.models.DTOs.IncomingReimDTO;
+import com.revature.models.DTOs.OutgoingImportJobDTO;
+import com.revature.models.Reimbursement;
+import com.revature.models.ReimbursementStatus;
+import com.revature.models.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class responsible for importing historical reimbursements from CSV files.
+ *
+ * An upload is saved to a temporary file and a job ID is returned right away. The file is then read line by line,
+ * cut into chunks, and the chunks are validated (with the same rules as ReimbursementService.addReimbursement)
+ * and written in parallel through a Hibernate StatelessSession with JDBC batching.
+ * The chunk queue is bounded: when the workers fall behind, the reader imports a chunk itself,
+ * so memory stays bounded whatever the size of the file.
+ *
+ * The file needs a header line, then one reimbursement per line: userId,description,amount[,status[,submittedAt]]
+ * Fields may be quoted with double quotes (a double quote inside is written twice). Status defaults to PENDING.
+ * submittedAt is a date (2024-01-31, midnight UTC) or an instant (2024-01-31T09:30:00Z), and defaults to now.
+ * The monthly spend rollups of the imported rows are updated in the same transaction as each chunk.
+ */
+@Service
+public class ImportService {
+
+    private final ReimbursementService reimbursementService;
+    private final ReimbursementCache reimbursementCache;
+    private final ReimbursementStats reimbursementStats;
+    private final SpendRollupService spendRollupService;
+    private final UserDAO userDAO;
+    private final SessionFactory sessionFactory;
+    private final int chunkSize;
+
+    // Reads the files, one thread per running job
+    private final ExecutorService jobExecutor;
+
+    // Validates and writes chunks, shared by all jobs
+    private final ThreadPoolExecutor chunkExecutor;
+
+    // Finished jobs can be polled for a day
+    private final Cache<String, ImportJob> jobs = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    /**
+     * Constructor for ImportService.
+     * @param reimbursementService The service holding the reimbursement validation rules.
+     * @param reimbursementCache The cache of the manager's listing pages, invalidated after an import.
+     * @param reimbursementStats The live count and amount total of each status, updated after each chunk.
+     * @param spendRollupService The monthly spend rollups, updated with each chunk.
+     * @param userDAO The data access object for user entities.
+     * @param entityManagerFactory The JPA factory, unwrapped to open Hibernate stateless sessions.
+     * @param workerThreads Creates the import threads, virtual ones in virtual thread mode.
+     * @param chunkSize The number of rows validated and written together.
+     * @param workers The number of chunks imported in parallel.
+     * @param concurrentJobs The number of files read at the same time.
+     */
+    @Autowired
+    public ImportService(ReimbursementService reimbursementService,
+                         ReimbursementCache reimbursementCache,
+                         ReimbursementStats reimbursementStats,
+                         SpendRollupService spendRollupService,
+                         UserDAO userDAO,
+                         EntityManagerFactory entityManagerFactory,
+                         WorkerThreads workerThreads,
+                         @Value("${reimbursement.import.chunk-size:1000}") int chunkSize,
+                         @Value("${reimbursement.import.workers:4}") int workers,
+                         @Value("${reimbursement.import.concurrent-jobs:2}") int concurrentJobs) {
+        this.reimbursementService = reimbursementService;
+        this.reimbursementCache = reimbursementCache;
+        this.reimbursementStats = reimbursementStats;
+        this.spendRollupService = spendRollupService;
+        this.userDAO = userDAO;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.chunkSize = chunkSize;
+
+        this.jobExecutor = Executors.newFixedThreadPool(concurrentJobs, workerThreads.named("import-job-"));
+        this.chunkExecutor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2),
+                workerThreads.named("import-chunk-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Stops the import threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    /**
+     * Saves an uploaded CSV file and starts importing it in the background.
+     * @param file The uploaded CSV file.
+     * @return The progress of the new job, with the job ID to poll.
+     * @throws IllegalArgumentException If no file was uploaded.
+     * @throws IOException If the upload can't be saved to a temporary file.
+     */
+    public OutgoingImportJobDTO startImport(MultipartFile file) throws IOException {
+
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Upload a CSV file to import!");
+        }
+
+        // The request ends before the import does, so the upload is copied to a file we own
+        Path tempFile = Files.createTempFile("reimbursement-import-", ".csv");
+        file.transferTo(tempFile);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename());
+        jobs.put(job.getJobId(), job);
+        jobExecutor.execute(() -> runImport(job, tempFile));
+
+        return job.getImportJobDTO();
+    }
+
+    /**
+     * Retrieves the progress of an import job.
+     * @param jobId The ID of the job.
+     * @return The progress of the job.
+     * @throws IllegalArgumentException If there is no such job.
+     */
+    public OutgoingImportJobDTO getImportJob(String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+
+        if (job == null) {
+            throw new IllegalArgumentException("Import job " + jobId + " not found!");
+        }
+        return job.getImportJobDTO();
+    }
+
+    /**
+     * Reads the file and hands its rows to the chunk workers, then waits for every chunk to be imported.
+     * @param job The job to report progress to.
+     * @param file The CSV file.
+     */
+    private void runImport(ImportJob job, Path file) {
+        job.start();
+
+        // One party for this thread, plus one for each chunk not imported yet
+        Phaser pendingChunks = new Phaser(1);
+        // Whether each user ID seen in the file exists, so every user is looked up only once
+        Map<Integer, Boolean> knownUsers = new ConcurrentHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            String header = reader.readLine();
+            if (header == null || !header.trim().toLowerCase().startsWith("userid")) {
+                throw new IllegalArgumentException("The first line must be the header userId,description,amount,status,submittedAt");
+            }
+
+            long lineNumber = 1;
+            List<CsvRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new CsvRow(lineNumber, line));
+
+                if (chunk.size() == chunkSize) {
+                    submitChunk(job, chunk, knownUsers, pendingChunks);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submitChunk(job, chunk, knownUsers, pendingChunks);
+            }
+
+            pendingChunks.arriveAndAwaitAdvance();
+            job.complete();
+
+        } catch (IOException | RuntimeException e) {
+            // Let the chunks already handed out finish, so the counters are final
+            pendingChunks.arriveAndAwaitAdvance();
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // The temporary directory gets cleaned up eventually, nothing else to do
+            }
+            // Rows were added all over the listings
+            reimbursementCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Hands a chunk to the workers, or imports it on the calling thread if the queue is full.
+     * @param job The job to report progress to.
+     * @param chunk The rows of the chunk.
+     * @param knownUsers The users already looked up by this job.
+     * @param pendingChunks The chunks not imported yet.
+     */
+    private void submitChunk(ImportJob job, List<CsvRow> chunk, Map<Integer, Boolean> knownUsers, Phaser pendingChunks) {
+        job.addRowsRead(chunk.size());
+        pendingChunks.register();
+
+        try {
+            chunkExecutor.execute(() -> {
+                try {
+                    importChunk(job, chunk, knownUsers);
+                } finally {
+                    pendingChunks.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Only happens while shutting down, the chunk will never run
+            pendingChunks.arriveAndDeregister();
+            throw e;
+        }
+    }
+
+    /**
+     * Validates the rows of a chunk and writes the valid ones in one transaction.
+     * @param job The job to report progress and errors to.
+     * @param chunk The rows of the chunk.
+     * @param knownUsers The users already looked up by this job.
+     */
+    private void importChunk(ImportJob job, List<CsvRow> chunk, Map<Integer, Boolean> knownUsers) {
+        List<Reimbursement> valid = new ArrayList<>(chunk.size());
+        List<Long> validLines = new ArrayList<>(chunk.size());
+
+        for (CsvRow row : chunk) {
+            try {
+                valid.add(parseRow(row, knownUsers));
+                validLines.add(row.lineNumber());
+            } catch (IllegalArgumentException e) {
+                job.addError(row.lineNumber(), e.getMessage());
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // A stateless session keeps no persistence context and no snapshots, the inserts go out as JDBC batches
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(ReimbursementService.INSERT_BATCH_SIZE);
+            Transaction tx = session.beginTransaction();
+            try {
+                SpendRollupService.Deltas rollups = new SpendRollupService.Deltas();
+                for (Reimbursement r : valid) {
+                    session.insert(r);
+                    rollups.add(r.getUser().getUserId(), r.getSubmittedAt(), r.getStatus(), 1, r.getAmount());
+                }
+                spendRollupService.apply(rollups, session);
+                tx.commit();
+                job.addRowsImported(valid.size());
+
+                for (Reimbursement r : valid) {
+                    reimbursementStats.added(r.getStatus(), r.getAmount());
+                }
+            } catch (RuntimeException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                for (long lineNumber : validLines) {
+                    job.addError(lineNumber, "Could not be saved: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses and validates one CSV row.
+     * @param row The row.
+     * @param knownUsers The users already looked up by this job.
+     * @return The reimbursement to insert.
+     * @throws IllegalArgumentException If the row is not valid.
+     */
+    private Reimbursement parseRow(CsvRow row, Map<Integer, Boolean> knownUsers) {
+        List<String> fields = splitCsvLine(row.line());
+
+        if (fields.size() < 3 || fields.size() > 5) {
+            throw new IllegalArgumentException("Expected userId,description,amount[,status[,submittedAt]] but found " + fields.size() + " fields");
+        }
+
+        int userId;
+        int amount;
+        try {
+            userId = Integer.parseInt(fields.get(0).trim());
+            amount = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("userId and amount must be whole numbers");
+        }
+
+        String status = fields.size() >= 4 && !fields.get(3).isBlank() ? fields.get(3).trim() : "PENDING";
+        if (!ReimbursementStatus.isStatus(status)) {
+            throw new IllegalArgumentException(status + " is not a valid status");
+        }
+
+        // Same rules as a reimbursement submitted through the API
+        reimbursementService.checkReimbursement(new IncomingReimDTO(fields.get(1), amount, userId));
+
+        if (!knownUsers.computeIfAbsent(userId, userDAO::existsById)) {
+            throw new IllegalArgumentException("User " + userId + " not found");
+        }
+
+        // Only the user's ID is needed for the foreign key, no need to load the user
+        User user = new User();
+        user.setUserId(userId);
+
+        Reimbursement r = new Reimbursement(fields.get(1), amount, user);
+        r.setStatus(status);
+        if (fields.size() == 5 && !fields.get(4).isBlank()) {
+            r.setSubmittedAt(parseSubmittedAt(fields.get(4).trim()));
+        }
+        return r;
+    }
+
+    /**
+     * Parses the submission time of a historical reimbursement.
+     * @param submittedAt A date (midnight UTC) or an ISO-8601 instant.
+     * @return The submission time.
+     * @throws IllegalArgumentException If it is neither.
+     */
+    private static Instant parseSubmittedAt(String submittedAt) {
+        try {
+            if (submittedAt.length() == 10) {
+                return LocalDate.parse(submittedAt).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return Instant.parse(submittedAt);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("submittedAt must be a date like 2024-01-31 or an instant like 2024-01-31T09:30:00Z");
+        }
+    }
+
+    /**
+     * Splits a CSV line into fields, double quotes can surround a field holding commas.
+     * @param line The CSV line.
+     * @return The fields of the line.
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * One line of the CSV file.
+     * @param lineNumber The line number in the file, for error reporting.
+     * @param line The text of the line.
+     */
+    private record CsvRow(long lineNumber, String line) {
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.revature.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per username and per client IP, and blocks further attempts once either count
+ * reaches its limit. A count starts over failure-window-minutes after its first failure, and a successful
+ * login clears the username's count.
+ *
+ * Only usernames that exist are counted by username, failures on made-up usernames are only counted by IP.
+ * So the username counts hold at most one entry per user: a flood of made-up usernames can't fill them and
+ * push out the count of a username under attack.
+ *
+ * Blocked attempts are refused before any password is hashed, so guessing costs the server nothing once
+ * throttled. The per-IP limit is higher, a whole office can sit behind one address.
+ * Behind a proxy, set server.forward-headers-strategy so the IP is the client's, not the proxy's.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxPerUsername;
+    private final int maxPerIp;
+    private final Cache<String, AtomicInteger> usernameFailures;
+    private final Cache<String, AtomicInteger> ipFailures;
+
+    /**
+     * Constructor for LoginThrottle.
+     * @param maxPerUsername Failed logins allowed for a username within the window.
+     * @param maxPerIp Failed logins allowed from an IP within the window.
+     * @param windowMinutes How long failures are counted.
+     */
+    public LoginThrottle(@Value("${login.max-failures-per-username:5}") int maxPerUsername,
+                         @Value("${login.max-failures-per-ip:20}") int maxPerIp,
+                         @Value("${login.failure-window-minutes:15}") long windowMinutes) {
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+        // Bounded, so a flood of failures from many IPs can't grow the counters without end
+        this.usernameFailures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(windowMinutes))
+                .build();
+        this.ipFailures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+
+    /**
+     * Tells if a login attempt is blocked.
+     * @param username The username tried.
+     * @param ip The IP of the client.
+     * @return True if the username or the IP has too many recent failures.
+     */
+    public boolean isBlocked(String username, String ip) {
+        return count(usernameFailures, username) >= maxPerUsername || count(ipFailures, ip) >= maxPerIp;
+    }
+
+    /**
+     * Records a failed login for a username that exists.
+     * @param username The username tried.
+     * @param ip The IP of the client.
+     */
+    public void failed(String username, String ip) {
+        usernameFailures.get(username, key -> new AtomicInteger()).incrementAndGet();
+        ipFailures.get(ip, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Records a failed login for a username that doesn't exist, counted for the IP only.
+     * @param ip The IP of the client.
+     */
+    public void failedUnknownUsername(String ip) {
+        ipFailures.get(ip, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Records a successful login, the username's failures are forgiven.
+     * @param username The username logged in.
+     */
+    public void succeeded(String username) {
+        usernameFailures.invalidate(username);
+    }
+
+    /**
+     * Reads a failure count.
+     * @param failures The counts.
+     * @param key The username or IP.
+     * @return The number of failures within the window.
+     */
+    private static int count(Cache<String, AtomicInteger> failures, String key) {
+        AtomicInteger count = failures.getIfPresent(key);
+        return count == null ? 0 : count.get();
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.revature.services;
+
+import com.revature.models.DTOs.OutgoingHashingStatsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and checks passwords with bcrypt, on a small dedicated pool of threads.
+ *
+ * A bcrypt hash costs tens of milliseconds of CPU on purpose. Running them on request threads would let a burst
+ * of logins take every core from the requests serving reads, so hashes run on password.hashing-threads threads
+ * and at most password.hashing-queue-capacity more wait for one. Beyond that a hash is refused right away with a
+ * RejectedExecutionException (the caller answers 503) instead of queueing without bound.
+ *
+ * Every method returns a CompletableFuture instead of waiting for the hash: the controllers return it to Spring MVC,
+ * which releases the request thread until the hash is done. What is chained on the future runs on the hashing
+ * thread that completed it, so only short work belongs there (a single statement, building the response).
+ *
+ * Users registered before hashing have their password stored in plain text. Those still match (compared in
+ * constant time), and needsRehash tells the caller to store a hash instead, the same as for a hash made with
+ * an older bcrypt strength.
+ */
+@Service
+public class PasswordHasher implements MeterBinder {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    // Hash of a random password, matched when the user doesn't exist so that takes as long as a wrong password
+    private final String dummyHash;
+
+    /**
+     * Constructor for PasswordHasher.
+     * @param workerThreads Creates the hashing threads.
+     * @param strength The bcrypt cost factor, every +1 doubles the time of a hash.
+     * @param threads The number of threads hashing passwords.
+     * @param queueCapacity How many hashes can wait for a thread.
+     */
+    public PasswordHasher(WorkerThreads workerThreads,
+                          @Value("${password.bcrypt-strength:10}") int strength,
+                          @Value("${password.hashing-threads:2}") int threads,
+                          @Value("${password.hashing-queue-capacity:100}") int queueCapacity) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                workerThreads.named("password-hash-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Too many logins at once, try again later!");
+                });
+        this.dummyHash = encoder.encode(Long.toString(System.nanoTime()));
+    }
+
+    /**
+     * Stops the hashing threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hashes a password.
+     * @param password The password in plain text.
+     * @return The bcrypt hash, once it is computed.
+     * @throws RejectedExecutionException If too many hashes are waiting already.
+     */
+    public CompletableFuture<String> hash(String password) {
+        return run(() -> encoder.encode(password));
+    }
+
+    /**
+     * Checks a password against the stored one.
+     * @param password The password in plain text.
+     * @param stored The stored bcrypt hash, or the plain text password of a user registered before hashing.
+     * @return True if the password matches, once it is checked.
+     * @throws RejectedExecutionException If too many hashes are waiting already.
+     */
+    public CompletableFuture<Boolean> matches(String password, String stored) {
+        if (!isHash(stored)) {
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8)));
+        }
+        return run(() -> encoder.matches(password, stored));
+    }
+
+    /**
+     * Spends the time of a password check without a user, so an unknown username can't be told
+     * from a wrong password by the response time.
+     * @param password The password in plain text.
+     * @return Completed once the time is spent, always false.
+     * @throws RejectedExecutionException If too many hashes are waiting already.
+     */
+    public CompletableFuture<Boolean> matchNothing(String password) {
+        return run(() -> encoder.matches(password, dummyHash));
+    }
+
+    /**
+     * Tells if a stored password should be replaced by a new hash after a successful login.
+     * @param stored The stored password.
+     * @return True for a plain text password, or a hash made with another bcrypt strength.
+     */
+    public boolean needsRehash(String stored) {
+        return !isHash(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    /**
+     * Reads the state of the hashing pool.
+     * @return The number of hashes waiting and running, and the number completed and rejected so far.
+     */
+    public OutgoingHashingStatsDTO getStats() {
+        return new OutgoingHashingStatsDTO(executor.getQueue().size(), executor.getActiveCount(),
+                executor.getCompletedTaskCount(), rejected.sum());
+    }
+
+    /**
+     * Publishes the state of the hashing pool as metrics, the same numbers as getStats.
+     * Called by Spring Boot with the application's meter registry.
+     * @param registry The meter registry.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Hashes waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes running")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .description("Hashes completed")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Hashes refused because the queue was full")
+                .register(registry);
+    }
+
+    /**
+     * Tells a bcrypt hash from a plain text password.
+     * @param stored The stored password.
+     * @return True for a bcrypt hash.
+     */
+    private static boolean isHash(String stored) {
+        return stored.startsWith("$2a$") || stored.startsWith("$2b$") || stored.startsWith("$2y$");
+    }
+
+    /**
+     * Runs a hashing task on the hashing threads.
+     * @param task The task.
+     * @return The result of the task, once it ran.
+     * @throws RejectedExecutionException If too many hashes are waiting already, thrown right away by this call.
+     */
+    private <T> CompletableFuture<T> run(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+}
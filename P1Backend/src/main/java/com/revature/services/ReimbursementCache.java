@@ -0,0 +1,211 @@
+package com.revature.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.revature.models.DTOs.CollectionVersionDTO;
+import com.revature.models.DTOs.OutgoingCacheStatsDTO;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingReimPageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of the manager's reimbursement listing pages (all reimbursements and by status).
+ * Managers poll these pages all day, so repeated requests are served from memory instead of PostgreSQL.
+ *
+ * The cache is bounded by size and entries expire after a TTL. Writes invalidate only the cached pages
+ * whose ID range holds the changed reimbursement, for the statuses the write touched.
+ *
+ * The version of each listing (see CollectionVersionDTO) is cached too, so a manager refreshing an unchanged
+ * listing gets a 304 without any query. A write drops the versions of the statuses it touched and of ALL.
+ *
+ * Misses are loaded outside of the cache's locks: Caffeine's get(key, loader) runs the loader inside a
+ * ConcurrentHashMap lock, a JDBC query in there would pin a virtual thread to its carrier (and block other keys).
+ * Two readers missing the same page at once may both query it, which is rare and cheaper than serializing them.
+ */
+@Component
+public class ReimbursementCache {
+
+    /**
+     * Identifies one cached page.
+     * @param status The status of the listing, or ALL for the unfiltered listing.
+     * @param afterId The reimbursement ID the page starts after (decoded cursor).
+     * @param pageSize The page size.
+     */
+    private record PageKey(String status, int afterId, int pageSize) {
+    }
+
+    /**
+     * A cached page with the last reimbursement ID it covers.
+     * @param page The cached page.
+     * @param lastId The last ID covered by the page, Integer.MAX_VALUE for the last page of a listing.
+     */
+    private record CachedPage(OutgoingReimPageDTO page, int lastId) {
+
+        /**
+         * Checks if a reimbursement with this ID belongs (or would belong) to this page.
+         * @param key The key of this page.
+         * @param reimbId The reimbursement ID.
+         * @return True if the ID is in the page's range.
+         */
+        boolean covers(PageKey key, int reimbId) {
+            return reimbId > key.afterId() && reimbId <= lastId;
+        }
+    }
+
+    private final Cache<PageKey, CachedPage> pages;
+
+    // Version of each listing, by status (ALL for the unfiltered listing)
+    private final Cache<String, CollectionVersionDTO> versions;
+
+    // Caffeine only counts size and TTL evictions, writes invalidating pages are counted here
+    private final LongAdder invalidations = new LongAdder();
+
+    // Bumped by every invalidation, a page loaded while one happened may hold old rows and is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor for ReimbursementCache.
+     * @param maximumSize The maximum number of pages kept in memory.
+     * @param ttlSeconds The number of seconds a page is kept after it was loaded.
+     */
+    public ReimbursementCache(@Value("${reimbursement.cache.maximum-size:1000}") long maximumSize,
+                              @Value("${reimbursement.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the cached page, or loads and caches it.
+     * @param status The status of the listing, or ALL for the unfiltered listing.
+     * @param afterId The reimbursement ID the page starts after.
+     * @param pageSize The page size.
+     * @param loader Loads the page from the database on a miss.
+     * @return The page.
+     */
+    public OutgoingReimPageDTO getPage(String status, int afterId, int pageSize, Supplier<OutgoingReimPageDTO> loader) {
+        return load(pages, new PageKey(status, afterId, pageSize), () -> {
+            OutgoingReimPageDTO page = loader.get();
+            List<OutgoingReimDTO> rows = page.getReimbursements();
+
+            // Only a page with a following page has an upper bound, the last page takes every new ID
+            int lastId = page.getNext() == null || rows.isEmpty()
+                    ? Integer.MAX_VALUE
+                    : rows.get(rows.size() - 1).getReimbId();
+            return new CachedPage(page, lastId);
+        }).page();
+    }
+
+    /**
+     * Returns the cached version of a listing, or loads and caches it.
+     * @param status The status of the listing, or ALL for the unfiltered listing.
+     * @param loader Loads the version from the database on a miss.
+     * @return The version of the listing.
+     */
+    public CollectionVersionDTO getVersion(String status, Supplier<CollectionVersionDTO> loader) {
+        return load(versions, status, loader);
+    }
+
+    /**
+     * Returns a cached value, or loads it without holding any cache lock and caches it.
+     * @param cache The cache.
+     * @param key The key of the value.
+     * @param loader Loads the value from the database on a miss.
+     * @return The value.
+     */
+    private <K, V> V load(Cache<K, V> cache, K key, Supplier<V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAt = generation.get();
+        V loaded = loader.get();
+        cache.put(key, loaded);
+        // An invalidation that ran during the load may have missed our entry, drop it ourselves.
+        // One that runs after this check sees the entry and evicts it, so a stale value never stays.
+        if (generation.get() != loadedAt) {
+            cache.asMap().remove(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidates the cached pages that hold (or would hold) a reimbursement, in the given statuses and in ALL.
+     * Inside a transaction this happens after commit, so a reader can't cache the old rows again in between.
+     * @param reimbId The ID of the reimbursement that was written.
+     * @param statuses The statuses the reimbursement had before and/or after the write.
+     */
+    public void invalidate(int reimbId, String... statuses) {
+        List<String> affected = List.of(statuses);
+
+        Runnable eviction = () -> {
+            generation.incrementAndGet();
+            versions.invalidate("ALL");
+            versions.invalidateAll(affected);
+            evictPages(reimbId, affected);
+        };
+
+        TransactionCallbacks.afterCommit(eviction);
+    }
+
+    /**
+     * Evicts the cached pages that hold (or would hold) a reimbursement, in the given statuses and in ALL.
+     * @param reimbId The ID of the reimbursement that was written.
+     * @param affected The statuses the reimbursement had before and/or after the write.
+     */
+    private void evictPages(int reimbId, List<String> affected) {
+        pages.asMap().entrySet().removeIf(entry -> {
+            PageKey key = entry.getKey();
+            boolean remove = (key.status().equals("ALL") || affected.contains(key.status()))
+                    && entry.getValue().covers(key, reimbId);
+            if (remove) {
+                invalidations.increment();
+            }
+            return remove;
+        });
+    }
+
+    /**
+     * Invalidates every cached page, for writes that touch too many reimbursements to invalidate one by one.
+     * Inside a transaction this happens after commit.
+     */
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            invalidations.add(pages.estimatedSize());
+            pages.invalidateAll();
+            versions.invalidateAll();
+        });
+    }
+
+    /**
+     * Retrieves the hit, miss and eviction statistics of the cache.
+     * @return The statistics DTO.
+     */
+    public OutgoingCacheStatsDTO getStats() {
+        CacheStats stats = pages.stats();
+
+        return new OutgoingCacheStatsDTO(
+                pages.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.sum());
+    }
+
+}
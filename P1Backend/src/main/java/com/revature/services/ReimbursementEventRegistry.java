@@ -0,0 +1,173 @@
+package com.revature.services;
+
+import com.revature.models.DTOs.OutgoingReimDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the open Server-Sent Events connections of each user and pushes reimbursement status changes to them,
+ * so employees see a decision without refetching their reimbursements.
+ *
+ * A connection is an async servlet request: while it is idle it is only an entry in this registry and an open socket,
+ * no request thread waits on it. Events are sent by a small dispatch pool once the write commits, and one
+ * scheduled thread sends a heartbeat comment to every connection, which also finds the connections that were closed.
+ */
+@Component
+public class ReimbursementEventRegistry {
+
+    /**
+     * Name of the event sent when the status of a reimbursement changes.
+     */
+    public static final String STATUS_EVENT = "status";
+
+    private final Map<Integer, Deque<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final long timeoutMillis;
+    private final int maxPerUser;
+
+    // Sends events, so a slow client never holds up the request that changed the status
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    /**
+     * Constructor for ReimbursementEventRegistry.
+     * @param timeoutMinutes The number of minutes a connection stays open, browsers reconnect by themselves after that.
+     * @param heartbeatSeconds The number of seconds between two heartbeats.
+     * @param maxPerUser The number of open connections a user can have (tabs), the oldest is closed beyond that.
+     * @param dispatchThreads The number of threads sending events.
+     * @param workerThreads Creates the event threads, virtual ones in virtual thread mode.
+     */
+    public ReimbursementEventRegistry(@Value("${reimbursement.events.timeout-minutes:30}") long timeoutMinutes,
+                                      @Value("${reimbursement.events.heartbeat-seconds:25}") long heartbeatSeconds,
+                                      @Value("${reimbursement.events.max-per-user:5}") int maxPerUser,
+                                      @Value("${reimbursement.events.dispatch-threads:2}") int dispatchThreads,
+                                      WorkerThreads workerThreads) {
+        this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+        this.maxPerUser = maxPerUser;
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, workerThreads.named("reimbursement-events-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(workerThreads.named("reimbursement-events-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the event threads and closes every connection when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Opens a connection for a user.
+     * @param userId The ID of the logged in user.
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(int userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // Added inside compute, so remove() can't drop the user's entry between the lookup and the add
+        Deque<SseEmitter> userEmitters = emitters.compute(userId, (id, current) -> {
+            Deque<SseEmitter> deque = current == null ? new ConcurrentLinkedDeque<>() : current;
+            deque.addLast(emitter);
+            return deque;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        // A tab that was closed without the socket noticing must not keep a slot forever.
+        // Evicted through remove(), its completion callback then finds it gone and doesn't count it twice
+        while (userEmitters.size() > maxPerUser) {
+            SseEmitter oldest = userEmitters.peekFirst();
+            if (oldest != null) {
+                remove(userId, oldest);
+                oldest.complete();
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Pushes the new status of a reimbursement to its owner's connections, once the current transaction commits.
+     * @param reimbursement The reimbursement, with its new status.
+     */
+    public void statusChanged(OutgoingReimDTO reimbursement) {
+        TransactionCallbacks.afterCommit(() -> {
+            Deque<SseEmitter> userEmitters = emitters.get(reimbursement.getUserId());
+            if (userEmitters == null || userEmitters.isEmpty()) {
+                return;
+            }
+            dispatcher.execute(() -> {
+                for (SseEmitter emitter : userEmitters) {
+                    send(emitter, SseEmitter.event()
+                            .name(STATUS_EVENT)
+                            .id(Integer.toString(reimbursement.getReimbId()))
+                            .data(reimbursement, MediaType.APPLICATION_JSON));
+                }
+            });
+        });
+    }
+
+    /**
+     * Counts the open connections.
+     * @return The number of open connections, over all users.
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Sends a comment to every connection. Proxies keep the connections open, and closed ones fail and are removed.
+     */
+    private void sendHeartbeat() {
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(
+                emitter -> send(emitter, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Sends an event, closing the connection if the client is gone.
+     * @param emitter The connection.
+     * @param event The event.
+     */
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away (or the emitter already completed), the completion callback removes it
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Forgets a closed connection.
+     * @param userId The ID of the connection's user.
+     * @param emitter The connection.
+     */
+    private void remove(int userId, SseEmitter emitter) {
+        Deque<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters != null && userEmitters.remove(emitter)) {
+            connections.decrementAndGet();
+            // Drop the user's entry once the last connection is gone, unless a new one raced in
+            emitters.computeIfPresent(userId, (id, current) -> current.isEmpty() ? null : current);
+        }
+    }
+
+}
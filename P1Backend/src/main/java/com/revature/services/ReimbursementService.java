@@ -1,46 +1,107 @@
 package com.revature.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.revature.DAOs.ReimbursementDAO;
 import com.revature.DAOs.UserDAO;
 import com.revature.models.DTOs.IncomingReimDTO;
+import com.revature.models.DTOs.IncomingReimDescriptionDTO;
+import com.revature.models.DTOs.IncomingReimPatchDTO;
+import com.revature.models.DTOs.IncomingReimStatusDTO;
+import com.revature.models.DTOs.CollectionVersionDTO;
+import com.revature.models.DTOs.IncomingStatusDTO;
+import com.revature.models.DTOs.OutgoingCacheStatsDTO;
 import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingReimPageDTO;
+import com.revature.models.DTOs.OutgoingStatusResultDTO;
+import com.revature.models.DTOs.OutgoingStatusStatsDTO;
 import com.revature.models.DTOs.OutgoingUserDTO;
 import com.revature.models.Reimbursement;
+import com.revature.models.ReimbursementStatus;
 import com.revature.models.User;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service layer for handling reimbursement-related operations.
  * This class contains methods to interact with the DAO layer to perform CRUD operations on reimbursements.
  * It also handles business logic related to reimbursement management.
  */
+// Every public method is timed, tagged with the class and method, see application.properties for the percentiles
+@Timed("service.operation")
 @Service
 public class ReimbursementService {
+
+    // Page size used when the client does not send a limit, and the biggest page we will ever build
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Biggest bulk status request we accept, and how many IDs go in one IN list
+    public static final int MAX_BULK_SIZE = 10000;
+    public static final int BULK_CHUNK_SIZE = 1000;
+
+    // Same as hibernate.jdbc.batch_size and the reimbursement sequence allocation size
+    public static final int INSERT_BATCH_SIZE = 50;
+
     // Service always calls for DAO, so DAO is a dependency for a Service
     // We need to inject ReimbursementDAO to use ReimbursementDAO methods
     // Autowire with constructor for dependency injection
     private ReimbursementDAO reimbursementDAO;
     private UserDAO userDAO;
+    private ObjectMapper objectMapper;
+    private ReimbursementCache reimbursementCache;
+    private ReimbursementStats reimbursementStats;
+    private SpendRollupService spendRollupService;
+    private ReimbursementEventRegistry reimbursementEvents;
+
+    // Used by the export to detach entities once they are written
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Constructor for ReimbursementService.
      * @param reimbursementDAO The data access object for reimbursement entities.
      * @param userDAO The data access object for user entities.
+     * @param objectMapper The application's Jackson mapper, used to write the export.
+     * @param reimbursementCache The cache of the manager's listing pages.
+     * @param reimbursementStats The live count and amount total of each status.
+     * @param spendRollupService The monthly spend rollups, updated in the same transaction as each write.
+     * @param reimbursementEvents The open event streams, status changes are pushed to the owner's streams.
      */
     @Autowired
-    public ReimbursementService(ReimbursementDAO reimbursementDAO,UserDAO userDAO) {
+    public ReimbursementService(ReimbursementDAO reimbursementDAO, UserDAO userDAO, ObjectMapper objectMapper,
+                                ReimbursementCache reimbursementCache, ReimbursementStats reimbursementStats,
+                                SpendRollupService spendRollupService, ReimbursementEventRegistry reimbursementEvents) {
         this.reimbursementDAO = reimbursementDAO;
         this.userDAO = userDAO;
+        this.objectMapper = objectMapper;
+        this.reimbursementCache = reimbursementCache;
+        this.reimbursementStats = reimbursementStats;
+        this.spendRollupService = spendRollupService;
+        this.reimbursementEvents = reimbursementEvents;
     }
 
     /**
@@ -49,6 +110,7 @@ public class ReimbursementService {
      * @return The newly created reimbursement object.
      * @throws IllegalArgumentException If the reimbursement data is invalid.
      */
+    @Transactional
     public Reimbursement addReimbursement(IncomingReimDTO reimDTO) throws IllegalArgumentException{
 
         //There aren't actual meaningful checks we can do on this
@@ -62,17 +124,7 @@ public class ReimbursementService {
         // and limit the amount than can be Reimbursement
 
         // Check for valid reimbursement data
-        if(reimDTO.getAmount() <= 0 ){
-            throw new IllegalArgumentException("Enter a valid amount!");
-        }
-
-        if(reimDTO.getAmount() > 20000  ){
-            throw new IllegalArgumentException("Reimbursement Amount cannot be bigger than 20000!");
-        }
-
-        if(reimDTO.getDescription().equals("None")){
-            throw new IllegalArgumentException("Description cannot be None!");
-        }
+        checkReimbursement(reimDTO);
 
         // Create a new reimbursement object
         Reimbursement reim = new Reimbursement(reimDTO.getDescription(), reimDTO.getAmount(), null);
@@ -88,35 +140,84 @@ public class ReimbursementService {
         }
 
         // Save and return the reimbursement
-        return reimbursementDAO.save(reim);
+        Reimbursement saved = reimbursementDAO.save(reim);
+        spendRollupService.submitted(saved);
+
+        // A new reimbursement shows up in the PENDING and ALL listings
+        reimbursementCache.invalidate(saved.getReimbId(), saved.getStatus());
+        reimbursementStats.added(saved.getStatus(), saved.getAmount());
+        return saved;
     }
 
     /**
-     * Retrieves all reimbursements from the database.
-     * @return A list of DTOs representing all reimbursements.
+     * Adds many reimbursements for one user at once, for example from a corporate card feed.
+     * Every reimbursement is validated before anything is inserted, then they are inserted in JDBC batches.
+     * @param reimDTOs The DTOs containing the reimbursement details.
+     * @param userId The ID of the user the reimbursements belong to.
+     * @return The number of reimbursements inserted.
+     * @throws IllegalArgumentException If the list is empty or too big, or if any reimbursement is invalid.
      */
-    public List<OutgoingReimDTO> getAllReimbursement(){
-        //for every reimbursement retrieved, we'll create a new OutgoingReimDTO
-        //and add it to a List to be returned
-        List<OutgoingReimDTO> outReimbursement = new ArrayList<>();
+    @Transactional
+    public int addReimbursements(List<IncomingReimDTO> reimDTOs, int userId) throws IllegalArgumentException{
+
+        if(reimDTOs == null || reimDTOs.isEmpty()){
+            throw new IllegalArgumentException("Send at least one reimbursement to submit!");
+        }
 
-        List<Reimbursement> allReimbursement= reimbursementDAO.findAll();
+        if(reimDTOs.size() > MAX_BULK_SIZE){
+            throw new IllegalArgumentException("You can submit at most " + MAX_BULK_SIZE + " reimbursements at once!");
+        }
 
-        // Convert reimbursement entities to DTOs
-        for(Reimbursement r : allReimbursement){
-            OutgoingReimDTO outP = new OutgoingReimDTO(
-                    r.getReimbId(),
-                    r.getDescription(),
-                    r.getStatus(),
-                    r.getAmount(),
-                    r.getUser().getUserId());
+        // All or nothing: validate everything first, and tell which one is wrong
+        for(int i = 0; i < reimDTOs.size(); i++){
+            try {
+                checkReimbursement(reimDTOs.get(i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Reimbursement " + (i + 1) + ": " + e.getMessage());
+            }
+        }
 
-            outReimbursement.add(outP);
+        Optional<User> opUser = userDAO.findById(userId);
+        if(opUser.isEmpty()){
+            throw new IllegalArgumentException("User not found!");
+        }
+        User u = opUser.get();
+
+        int count = 0;
+        long totalAmount = 0;
+        SpendRollupService.Deltas rollups = new SpendRollupService.Deltas();
+        for(IncomingReimDTO reimDTO : reimDTOs){
+            Reimbursement reim = new Reimbursement(reimDTO.getDescription(), reimDTO.getAmount(), u);
+            entityManager.persist(reim);
+            count++;
+            totalAmount += reimDTO.getAmount();
+            rollups.add(userId, reim.getSubmittedAt(), reim.getStatus(), 1, reim.getAmount());
+
+            // Send each full batch of inserts and forget the inserted entities, so memory stays bounded
+            if(count % INSERT_BATCH_SIZE == 0){
+                entityManager.flush();
+                entityManager.clear();
+                u = entityManager.getReference(User.class, userId);
+            }
         }
-        return outReimbursement;
-    }
 
+        // Usually a single rollup row, unless the submission straddles midnight at the end of a month
+        spendRollupService.apply(rollups);
 
+        // The new reimbursements show up in the PENDING and ALL listings
+        reimbursementCache.invalidateAll();
+        reimbursementStats.addedAll("PENDING", count, totalAmount);
+        return count;
+    }
+
+    /**
+     * Retrieves all reimbursements from the database.
+     * @return A list of DTOs representing all reimbursements.
+     */
+    public List<OutgoingReimDTO> getAllReimbursement(){
+        // The DAO builds the DTOs straight from the selected columns, no Reimbursement entities are loaded
+        return reimbursementDAO.findAllOutgoing();
+    }
 
     /**
      * Retrieves all reimbursements associated with a specific user ID from the database.
@@ -124,23 +225,8 @@ public class ReimbursementService {
      * @return A list of DTOs representing all reimbursements associated with the user.
      */
     public List<OutgoingReimDTO> getAllReimbursementByID(int userId){
-        List<OutgoingReimDTO> outReimbursement = new ArrayList<>();
-
-        // Retrieve all reimbursements associated with the user ID
-        List<Reimbursement> allReimbursement = reimbursementDAO.findByUserUserId(userId);
-
-        // Convert reimbursement entities to DTOs
-        for(Reimbursement r : allReimbursement){
-            OutgoingReimDTO outP = new OutgoingReimDTO(
-                    r.getReimbId(),
-                    r.getDescription(),
-                    r.getStatus(),
-                    r.getAmount(),
-                    r.getUser().getUserId());
-
-            outReimbursement.add(outP);
-        }
-        return outReimbursement;
+        // Retrieve all reimbursements associated with the user ID, already as DTOs
+        return reimbursementDAO.findOutgoingByUserId(userId);
     }
 
     /**
@@ -149,10 +235,11 @@ public class ReimbursementService {
      * @return A message indicating the success of the deletion operation.
      * @throws NoSuchElementException If the reimbursement with the given ID is not found in the database.
      */
+    @Transactional
     public String deleteReimbursement(int reimId){
 
-
-        Optional<Reimbursement> optionalReim = reimbursementDAO.findById(reimId);
+        // Load the owner in the same query, we need it to keep the user's list in sync
+        Optional<Reimbursement> optionalReim = reimbursementDAO.findWithUserByReimbId(reimId);
 
         // Check if the reimbursement with the given ID exists
         if(optionalReim.isEmpty()){
@@ -174,8 +261,16 @@ public class ReimbursementService {
         //The Reimbursement won't fully delete until you remove it from BOTH tables!
 
         // Remove the reimbursement from the user's list of reimbursements
-        reim.getUser().getReimbursement().remove(reim); // Delete from user's list
-        reimbursementDAO.deleteById(reimId); // Delete from reimbursement table
+        // The list is lazy: if it was never loaded there is nothing to remove it from,
+        // and loading the user's whole history just to remove one entry is what we want to avoid
+        User owner = reim.getUser();
+        if(owner != null && Hibernate.isInitialized(owner.getReimbursement())){
+            owner.getReimbursement().remove(reim); // Delete from user's list
+        }
+        reimbursementDAO.delete(reim); // Delete from reimbursement table
+        spendRollupService.removed(reim);
+        reimbursementCache.invalidate(reim.getReimbId(), reim.getStatus());
+        reimbursementStats.removed(reim.getStatus(), reim.getAmount());
 
         return "Reimbursement " + reim.getReimbId() + " with amount " + reim.getAmount() + " was deleted!";
     }
@@ -189,34 +284,13 @@ public class ReimbursementService {
      */
     public List<OutgoingReimDTO> getReimbByStatusAndId(String status, int userId){
 
-        // Valid status options
-        ArrayList <String> statuses = new  ArrayList<>(List.of("PENDING", "APPROVED", "DENIED"));
-
         // Check if the provided status is valid
-        if(status==null || !statuses.contains(status)) {
+        if(!ReimbursementStatus.isStatus(status)) {
             throw new IllegalArgumentException("Please, select a valid status option!");
         }
 
-        // Retrieve all reimbursements with the specified status and user ID from the database
-        List<Reimbursement>  allReimbursement = reimbursementDAO.findByStatusAndUserUserId(status, userId);
-
-        //for every reimbursement retrieved, we'll create a new OutgoingReimDTO
-        //and add it to a List to be returned
-        // Create a list to store the OutgoingReimDTO objects
-        List<OutgoingReimDTO> outReimbursement = new ArrayList<>();
-
-        // Convert each reimbursement to an OutgoingReimDTO and add it to the list
-        for(Reimbursement r : allReimbursement){
-            OutgoingReimDTO outP = new OutgoingReimDTO(
-                    r.getReimbId(),
-                    r.getDescription(),
-                    r.getStatus(),
-                    r.getAmount(),
-                    r.getUser().getUserId());
-
-            outReimbursement.add(outP);
-        }
-        return outReimbursement;
+        // Retrieve all reimbursements with the specified status and user ID from the database, already as DTOs
+        return reimbursementDAO.findOutgoingByStatusAndUserId(status, userId);
     }
 
     /**
@@ -226,73 +300,439 @@ public class ReimbursementService {
      * @throws IllegalArgumentException If the provided status is not valid.
      */
     public List<OutgoingReimDTO> getReimbByStatus(String status){
-        ArrayList <String> statuses = new  ArrayList<>(List.of("ALL","PENDING", "APPROVED", "DENIED"));
+        if(!isListingStatus(status)) {
+            throw new IllegalArgumentException("Please, select a valid status option!");
+        }
 
-        if(status==null || !statuses.contains(status)) {
+        //get all Reimbursement with the status from the DB, already as DTOs
+        return reimbursementDAO.findOutgoingByStatus(status);
+    }
+
+    /**
+     * Retrieves one page of all reimbursements, ordered by reimbursement ID.
+     * Pages are cached, managers poll this listing.
+     * @param next The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of reimbursements in the page, or null for the default page size.
+     * @return A page of DTOs and the cursor of the following page.
+     * @throws IllegalArgumentException If the cursor or the limit is not valid.
+     */
+    public OutgoingReimPageDTO getReimbursementPage(String next, Integer limit){
+        int pageSize = checkPageSize(limit);
+        int afterId = decodeCursor(next);
+
+        return reimbursementCache.getPage("ALL", afterId, pageSize, () -> {
+            // Ask for one extra row, so we know if there is a following page without a count query
+            List<OutgoingReimDTO> rows = reimbursementDAO.findOutgoingPage(afterId, Limit.of(pageSize + 1));
+            return getPageDTO(rows, pageSize);
+        });
+    }
+
+    /**
+     * Retrieves one page of the reimbursements associated with a specific user ID, ordered by reimbursement ID.
+     * @param userId The ID of the user whose reimbursements are to be retrieved.
+     * @param next The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of reimbursements in the page, or null for the default page size.
+     * @return A page of DTOs and the cursor of the following page.
+     * @throws IllegalArgumentException If the cursor or the limit is not valid.
+     */
+    public OutgoingReimPageDTO getReimbursementPageByID(int userId, String next, Integer limit){
+        int pageSize = checkPageSize(limit);
+
+        List<OutgoingReimDTO> rows = reimbursementDAO.findOutgoingPageByUserId(
+                userId, decodeCursor(next), Limit.of(pageSize + 1));
+
+        return getPageDTO(rows, pageSize);
+    }
+
+    /**
+     * Retrieves one page of reimbursement tickets with a specific status, ordered by reimbursement ID.
+     * Pages are cached, managers poll this listing (the PENDING queue above all).
+     * @param status The status of the reimbursement tickets to retrieve (ALL, PENDING, APPROVED, or DENIED).
+     * @param next The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of reimbursements in the page, or null for the default page size.
+     * @return A page of DTOs and the cursor of the following page.
+     * @throws IllegalArgumentException If the status, the cursor or the limit is not valid.
+     */
+    public OutgoingReimPageDTO getReimbPageByStatus(String status, String next, Integer limit){
+        if(!isListingStatus(status)) {
             throw new IllegalArgumentException("Please, select a valid status option!");
         }
 
-        //get all Reimbursement from the DB
-        List<Reimbursement>  allReimbursement = reimbursementDAO.findByStatus(status);
+        // ALL is not stored as a status, it means no status filter at all
+        if(status.equals("ALL")){
+            return getReimbursementPage(next, limit);
+        }
+
+        int pageSize = checkPageSize(limit);
+        int afterId = decodeCursor(next);
 
-        //for every reimbursement retrieved, we'll create a new OutgoingReimDTO
-        //and add it to a List to be returned
-        List<OutgoingReimDTO> outReimbursement = new ArrayList<>();
+        return reimbursementCache.getPage(status, afterId, pageSize, () -> {
+            List<OutgoingReimDTO> rows = reimbursementDAO.findOutgoingPageByStatus(
+                    status, afterId, Limit.of(pageSize + 1));
+            return getPageDTO(rows, pageSize);
+        });
+    }
 
-        for(Reimbursement r : allReimbursement){
-            OutgoingReimDTO outP = new OutgoingReimDTO(
-                    r.getReimbId(),
-                    r.getDescription(),
-                    r.getStatus(),
-                    r.getAmount(),
-                    r.getUser().getUserId());
+    /**
+     * Retrieves one page of reimbursement tickets with a specific status for a given user ID, ordered by reimbursement ID.
+     * @param status The status of the reimbursement tickets to retrieve (ALL, PENDING, APPROVED, or DENIED).
+     * @param userId The ID of the user for whom reimbursement tickets are to be retrieved.
+     * @param next The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of reimbursements in the page, or null for the default page size.
+     * @return A page of DTOs and the cursor of the following page.
+     * @throws IllegalArgumentException If the status, the cursor or the limit is not valid.
+     */
+    public OutgoingReimPageDTO getReimbPageByStatusAndId(String status, int userId, String next, Integer limit){
+        if(!isListingStatus(status)) {
+            throw new IllegalArgumentException("Please, select a valid status option!");
+        }
 
-            outReimbursement.add(outP);
+        if(status.equals("ALL")){
+            return getReimbursementPageByID(userId, next, limit);
         }
-        return outReimbursement;
+
+        int pageSize = checkPageSize(limit);
+
+        List<OutgoingReimDTO> rows = reimbursementDAO.findOutgoingPageByStatusAndUserId(
+                status, userId, decodeCursor(next), Limit.of(pageSize + 1));
+
+        return getPageDTO(rows, pageSize);
     }
 
-    // Update Status
-    public void updateStatus(int reimbId, String status) throws JsonProcessingException {
-        Optional <Reimbursement> opR = reimbursementDAO.findById(reimbId);
+    /**
+     * Computes the ETag of one page of a listing, from the number of reimbursements in the listing and their latest
+     * modification time. Deletes change the count, inserts and updates change the time, so the ETag changes
+     * whenever the page could have. Managers' listings reuse a cached version, users' listings cost one aggregate query.
+     * @param status The status of the listing (ALL, PENDING, APPROVED, or DENIED).
+     * @param userId The ID of the user whose listing it is, or null for the manager's listing of everyone.
+     * @param next The cursor of the page, or null for the first page.
+     * @param limit The page size asked for, or null for the default page size.
+     * @return The quoted ETag of the page.
+     * @throws IllegalArgumentException If the status is not valid.
+     */
+    public String getPageETag(String status, Integer userId, String next, Integer limit){
+        if(!isListingStatus(status)) {
+            throw new IllegalArgumentException("Please, select a valid status option!");
+        }
 
-        if(opR.isEmpty()){
+        CollectionVersionDTO version;
+        if(userId == null){
+            version = reimbursementCache.getVersion(status, () -> status.equals("ALL")
+                    ? reimbursementDAO.findVersion()
+                    : reimbursementDAO.findVersionByStatus(status));
+        } else if(status.equals("ALL")){
+            version = reimbursementDAO.findVersionByUserId(userId);
+        } else {
+            version = reimbursementDAO.findVersionByStatusAndUserId(status, userId);
+        }
+
+        return ETags.strong("reimbursements", status, userId, version.getCount(), version.getLastModified(), next, limit);
+    }
+
+    /**
+     * Retrieves the statistics of the cache in front of the manager's listings.
+     * @return The cache statistics DTO.
+     */
+    public OutgoingCacheStatsDTO getCacheStats(){
+        return reimbursementCache.getStats();
+    }
+
+    /**
+     * Retrieves the number of reimbursements and the total amount in each status, from memory.
+     * @return One statistics DTO per status.
+     */
+    public List<OutgoingStatusStatsDTO> getStats(){
+        return reimbursementStats.getStats();
+    }
+
+    /**
+     * Opens a stream of the status changes of a user's reimbursements.
+     * @param userId The ID of the logged in user.
+     * @return The Server-Sent Events emitter of the stream.
+     */
+    public SseEmitter subscribeToStatusChanges(int userId){
+        return reimbursementEvents.subscribe(userId);
+    }
+
+    /**
+     * Writes every reimbursement to the output stream as newline-delimited JSON (one OutgoingReimDTO per line).
+     * Rows are read from a database stream and every entity is detached once it is written,
+     * so memory use stays flat no matter how many reimbursements there are.
+     * @param out The stream to write the export to. It is flushed but not closed.
+     * @return The number of reimbursements written.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long exportReimbursements(OutputStream out) throws IOException {
+        long count = 0;
+
+        try (Stream<Reimbursement> rows = reimbursementDAO.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // We write our own newline between rows, and the caller owns the response stream
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            for (Reimbursement r : (Iterable<Reimbursement>) rows::iterator) {
+                objectMapper.writeValue(generator, getReimDTO(r));
+                generator.writeRaw('\n');
+                entityManager.detach(r);
+                count++;
+
+                // The lazy owner proxies of the rows are still managed, drop them once per fetch
+                if (count % ReimbursementDAO.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Updates the status of a reimbursement ticket, following the transitions in StatusTransitions.
+     * The decision is one conditional UPDATE per possible source status (only PENDING today), without reading
+     * the row first: when two managers decide at the same moment, exactly one UPDATE matches and the other loses.
+     * Only the winner reads the row back, to keep the rollups, statistics, cache and events in step.
+     * @param reimbId The ID of the reimbursement ticket to update.
+     * @param status The body holding the new status.
+     * @return The updated reimbursement.
+     * @throws IllegalArgumentException If the status is not valid, no reimbursement ticket is found with the provided ID,
+     * or the reimbursement already has the status.
+     * @throws IllegalStateException If the reimbursement can't move to the status, it was already decided.
+     */
+    @Transactional
+    public OutgoingReimDTO updateStatus(int reimbId, IncomingReimStatusDTO status) {
+
+        String statusValue = status.getStatus();
+
+        if(statusValue == null || !ReimbursementStatus.isStatus(statusValue)){
+            throw new IllegalArgumentException("No status named " + statusValue + " is found!");
+        }
+
+        // Try each status the reimbursement could move from, the row count says if we won
+        String oldStatus = null;
+        Instant now = Instant.now();
+        for(String from : StatusTransitions.sourcesOf(statusValue)){
+            if(reimbursementDAO.transitionStatus(reimbId, from, statusValue, now) == 1){
+                oldStatus = from;
+                break;
+            }
+        }
+
+        // Read back the row: the winner for its side effects, the loser to tell why it lost
+        List<OutgoingReimDTO> rows = reimbursementDAO.findOutgoingByReimbIdIn(List.of(reimbId));
+        if(rows.isEmpty()){
             throw new IllegalArgumentException("No reimbursement found!");
         }
+        OutgoingReimDTO r = rows.get(0);
 
- //       List<String> statuses = new ArrayList<>(List.of("PENDING", "APPROVED", "DENIED"));
+        if(oldStatus == null){
+            if(r.getStatus().equals(statusValue)){
+                throw new IllegalArgumentException("Status is already " + statusValue + ". No action taken!");
+            }
+            throw new IllegalStateException("Reimbursement is already " + r.getStatus() + ", it can't be " + statusValue + "!");
+        }
 
-//        if(!statuses.contains(status)){
-//            throw new IllegalArgumentException("No status named " + status+ " is found!");
-//        }
+        spendRollupService.statusChanged(r, oldStatus);
 
-        Reimbursement r = opR.get();
+        // The reimbursement leaves the old status listing and joins the new one
+        reimbursementCache.invalidate(reimbId, oldStatus, statusValue);
+        reimbursementStats.statusChanged(oldStatus, statusValue, r.getAmount());
+
+        // Tell the owner's open pages, instead of having them poll the list
+        reimbursementEvents.statusChanged(r);
+        return r;
+    }
+
+    /**
+     * Sets the status of many reimbursements at once, in one transaction.
+     * The current statuses are read with one query per chunk of IDs, then every chunk is updated
+     * with one UPDATE statement per target status, instead of a find and a save per reimbursement.
+     * @param updates The reimbursement IDs and the status to set on each of them.
+     * Only the transitions in StatusTransitions are made, the others are reported as INVALID_TRANSITION.
+     * @return One result per item, in request order: UPDATED, NOT_FOUND, ALREADY_IN_STATUS, INVALID_STATUS,
+     * INVALID_TRANSITION or DUPLICATE.
+     * @throws IllegalArgumentException If the request is empty or bigger than MAX_BULK_SIZE.
+     * @throws OptimisticLockingFailureException If another manager decided one of the reimbursements meanwhile,
+     * nothing is updated then.
+     */
+    @Transactional
+    public List<OutgoingStatusResultDTO> bulkUpdateStatus(List<IncomingStatusDTO> updates){
+
+        if(updates == null || updates.isEmpty()){
+            throw new IllegalArgumentException("Send at least one reimbursement to update!");
+        }
+
+        if(updates.size() > MAX_BULK_SIZE){
+            throw new IllegalArgumentException("You can update at most " + MAX_BULK_SIZE + " reimbursements at once!");
+        }
+
+        // Current status of every requested reimbursement that exists
+        List<Integer> ids = updates.stream().map(IncomingStatusDTO::getReimbId).distinct().toList();
+        Map<Integer, OutgoingReimDTO> current = new HashMap<>();
+        for(int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE){
+            List<Integer> chunk = ids.subList(i, Math.min(i + BULK_CHUNK_SIZE, ids.size()));
+            for(OutgoingReimDTO r : reimbursementDAO.findOutgoingByReimbIdIn(chunk)){
+                current.put(r.getReimbId(), r);
+            }
+        }
 
-        if(r.getStatus().equals(status)){
-            throw new IllegalArgumentException("Status is already " + status+ ". No action taken!");
+        // Decide what happens to each item and group the IDs to update by target status
+        List<OutgoingStatusResultDTO> results = new ArrayList<>(updates.size());
+        Map<String, List<Integer>> idsByStatus = new LinkedHashMap<>();
+        Map<Integer, Boolean> seen = new HashMap<>();
+        SpendRollupService.Deltas rollups = new SpendRollupService.Deltas();
+
+        for(IncomingStatusDTO update : updates){
+            String result;
+            if(seen.put(update.getReimbId(), true) != null){
+                result = "DUPLICATE";
+            } else if(!ReimbursementStatus.isStatus(update.getStatus())){
+                result = "INVALID_STATUS";
+            } else if(!current.containsKey(update.getReimbId())){
+                result = "NOT_FOUND";
+            } else if(current.get(update.getReimbId()).getStatus().equals(update.getStatus())){
+                result = "ALREADY_IN_STATUS";
+            } else if(!StatusTransitions.isAllowed(current.get(update.getReimbId()).getStatus(), update.getStatus())){
+                result = "INVALID_TRANSITION";
+            } else {
+                result = "UPDATED";
+                idsByStatus.computeIfAbsent(update.getStatus(), s -> new ArrayList<>()).add(update.getReimbId());
+
+                OutgoingReimDTO r = current.get(update.getReimbId());
+                reimbursementStats.statusChanged(r.getStatus(), update.getStatus(), r.getAmount());
+                rollups.add(r.getUserId(), r.getSubmittedAt(), r.getStatus(), -1, -r.getAmount())
+                        .add(r.getUserId(), r.getSubmittedAt(), update.getStatus(), 1, r.getAmount());
+                reimbursementEvents.statusChanged(new OutgoingReimDTO(r.getReimbId(), r.getDescription(),
+                        update.getStatus(), r.getAmount(), r.getUserId(), r.getSubmittedAt(), r.getVersion() + 1));
+            }
+            results.add(new OutgoingStatusResultDTO(update.getReimbId(), update.getStatus(), result));
         }
 
-        // Create ObjectMapper instance
-        ObjectMapper objectMapper = new ObjectMapper();
+        // One conditional UPDATE per target status and chunk, all stamped with the same modification time.
+        // Rows another manager decided since we read them don't match, then the whole run is rolled back
+        // rather than reporting results (and rollups) that didn't happen.
+        Instant now = Instant.now();
+        for(Map.Entry<String, List<Integer>> entry : idsByStatus.entrySet()){
+            List<Integer> toUpdate = entry.getValue();
+            for(int i = 0; i < toUpdate.size(); i += BULK_CHUNK_SIZE){
+                List<Integer> chunk = toUpdate.subList(i, Math.min(i + BULK_CHUNK_SIZE, toUpdate.size()));
+                int updated = reimbursementDAO.transitionStatusByReimbIdIn(
+                        StatusTransitions.sourcesOf(entry.getKey()), entry.getKey(), chunk, now);
+                if(updated != chunk.size()){
+                    throw new OptimisticLockingFailureException("Some reimbursements were decided by someone else meanwhile, reload them and try again!");
+                }
+            }
+        }
 
-        // Parse JSON string to JsonNode
-        JsonNode jsonNode = objectMapper.readTree(status);
+        // One upsert per (user, month, status) touched, not per reimbursement
+        spendRollupService.apply(rollups);
 
-        // Extract value of the "status" field
-        String statusValue = jsonNode.get("status").asText();
-        r.setStatus(statusValue);
-        reimbursementDAO.save(r);
+        // Too many rows to invalidate the cached pages one by one
+        if(!idsByStatus.isEmpty()){
+            reimbursementCache.invalidateAll();
+        }
+        return results;
+    }
 
+    /**
+     * Applies a JSON Merge Patch to a reimbursement: the description, status and amount it holds are set
+     * in one UPDATE statement, the fields it leaves out are kept.
+     * The row is read once (its columns only), the patch is checked against it, then the UPDATE only matches
+     * the version that was read, so a change committed in between fails the patch instead of being overwritten.
+     * A status change follows StatusTransitions, and the amount can only change while the reimbursement is PENDING.
+     * @param reimbId The ID of the reimbursement ticket to patch.
+     * @param patch The fields to set.
+     * @param ownerId The ID of the logged in employee, only their reimbursements can be patched, or null for a manager.
+     * @param ifMatch The If-Match header, or null to patch whatever the current version is.
+     * @return The patched reimbursement, with its new version.
+     * @throws IllegalArgumentException If the patch is empty or invalid, or no reimbursement ticket of the owner
+     * is found with the provided ID.
+     * @throws IllegalStateException If the reimbursement can't move to the status, or its amount can't change anymore.
+     * @throws OptimisticLockingFailureException If the reimbursement is not at the version in If-Match,
+     * or another update committed first.
+     */
+    @Transactional
+    public OutgoingReimDTO patchReimbursement(int reimbId, IncomingReimPatchDTO patch, Integer ownerId, String ifMatch){
+
+        if(!patch.hasDescription() && !patch.hasStatus() && !patch.hasAmount()){
+            throw new IllegalArgumentException("Send a description, status or amount to update!");
+        }
+        if((patch.hasDescription() && patch.getDescription() == null) || (patch.hasStatus() && patch.getStatus() == null)
+                || (patch.hasAmount() && patch.getAmount() == null)){
+            throw new IllegalArgumentException("The description, status and amount of a reimbursement can't be removed!");
+        }
+
+        List<OutgoingReimDTO> rows = reimbursementDAO.findOutgoingByReimbIdIn(List.of(reimbId));
+        if(rows.isEmpty() || (ownerId != null && rows.get(0).getUserId() != ownerId)){
+            throw new IllegalArgumentException("No reimbursement found!");
+        }
+        OutgoingReimDTO r = rows.get(0);
+
+        if(!ETags.matches(ifMatch, ETags.version(r.getVersion()))){
+            throw new OptimisticLockingFailureException("Reimbursement " + reimbId + " was changed by someone else, reload it and try again!");
+        }
+
+        String description = patch.hasDescription() ? patch.getDescription() : r.getDescription();
+        String status = patch.hasStatus() ? patch.getStatus() : r.getStatus();
+        int amount = patch.hasAmount() ? patch.getAmount() : r.getAmount();
+
+        if(patch.hasStatus()){
+            if(!ReimbursementStatus.isStatus(status)){
+                throw new IllegalArgumentException("No status named " + status + " is found!");
+            }
+            if(!status.equals(r.getStatus()) && !StatusTransitions.isAllowed(r.getStatus(), status)){
+                throw new IllegalStateException("Reimbursement is already " + r.getStatus() + ", it can't be " + status + "!");
+            }
+        }
+        if(amount != r.getAmount() && !r.getStatus().equals("PENDING")){
+            throw new IllegalStateException("Reimbursement is already " + r.getStatus() + ", its amount can't change!");
+        }
+        // Same rules as a new reimbursement
+        checkReimbursement(new IncomingReimDTO(description, amount, r.getUserId()));
+
+        if(reimbursementDAO.patch(reimbId, r.getVersion(), description, status, amount, Instant.now()) != 1){
+            throw new OptimisticLockingFailureException("Reimbursement " + reimbId + " was changed by someone else, reload it and try again!");
+        }
+        OutgoingReimDTO patched = new OutgoingReimDTO(reimbId, description, status, amount, r.getUserId(),
+                r.getSubmittedAt(), r.getVersion() + 1);
+
+        // Move the old status and amount out of the rollups and statistics, and the new ones in
+        if(!status.equals(r.getStatus()) || amount != r.getAmount()){
+            spendRollupService.apply(new SpendRollupService.Deltas()
+                    .add(r.getUserId(), r.getSubmittedAt(), r.getStatus(), -1, -r.getAmount())
+                    .add(r.getUserId(), r.getSubmittedAt(), status, 1, amount));
+            reimbursementStats.removed(r.getStatus(), r.getAmount());
+            reimbursementStats.added(status, amount);
+        }
+
+        reimbursementCache.invalidate(reimbId, r.getStatus(), status);
+        if(!status.equals(r.getStatus())){
+            reimbursementEvents.statusChanged(patched);
+        }
+        return patched;
     }
 
     /**
-     * Updates the status of a reimbursement ticket.
+     * Updates the description of a reimbursement ticket, without locking it.
+     * The client sends the version it edited in If-Match: if the reimbursement changed since, nothing is written.
+     * Two editors that pass the check at the same time are still caught, the UPDATE only matches the version
+     * that was read, so the second commit fails instead of overwriting the first.
      * @param reimbId The ID of the reimbursement ticket to update.
-     * @param status The new status to set for the reimbursement ticket.
-     * @throws IllegalArgumentException If no reimbursement ticket is found with the provided ID, or if the provided status is already the current status of the reimbursement ticket.
-     * @throws JsonProcessingException If there is an error processing the JSON string.
+     * @param description The body holding the new description.
+     * @param ifMatch The If-Match header, or null to update whatever the current version is.
+     * @return The updated reimbursement, with its new version.
+     * @throws IllegalArgumentException If the body holds no description, or no reimbursement ticket is found
+     * with the provided ID.
+     * @throws OptimisticLockingFailureException If the reimbursement is not at the version in If-Match,
+     * or another update committed first.
      */
-    public Reimbursement updateDescription(int reimbId, String description) throws JsonProcessingException {
+    @Transactional
+    public Reimbursement updateDescription(int reimbId, IncomingReimDescriptionDTO description, String ifMatch) {
+        if(description.getDescription() == null){
+            throw new IllegalArgumentException("The description of a reimbursement can't be removed!");
+        }
+
         Optional <Reimbursement> opR = reimbursementDAO.findById(reimbId);
 
         if(opR.isEmpty()){
@@ -301,17 +741,132 @@ public class ReimbursementService {
 
         Reimbursement r = opR.get();
 
-        // Create ObjectMapper instance to parse JSON string
-        ObjectMapper objectMapper = new ObjectMapper();
+        if(!ETags.matches(ifMatch, ETags.version(r.getVersion()))){
+            throw new OptimisticLockingFailureException("Reimbursement " + reimbId + " was changed by someone else, reload it and try again!");
+        }
 
-        // Parse JSON string to JsonNode
-        JsonNode jsonNode = objectMapper.readTree(description);
+        r.setDescription(description.getDescription());
+        // Flushed here, so a concurrent update shows up as an OptimisticLockingFailureException from this method
+        Reimbursement saved = reimbursementDAO.saveAndFlush(r);
 
-        // Extract value of the "status" field
-        String descValue = jsonNode.get("description").asText();
-        r.setDescription(descValue);
-        return reimbursementDAO.save(r);
+        reimbursementCache.invalidate(reimbId, saved.getStatus());
+        return saved;
 
     }
 
+    /**
+     * Converts a Reimbursement object to an OutgoingReimDTO object.
+     * @param r The Reimbursement object to convert.
+     * @return The converted OutgoingReimDTO object.
+     */
+    public OutgoingReimDTO getReimDTO(Reimbursement r){
+
+        return new OutgoingReimDTO(
+                r.getReimbId(),
+                r.getDescription(),
+                r.getStatus(),
+                r.getAmount(),
+                r.getUser().getUserId(),
+                r.getSubmittedAt(),
+                r.getVersion());
+    }
+
+    /**
+     * Checks that the details of a reimbursement are valid.
+     * These are the rules of every way a reimbursement gets in: single, bulk and CSV import.
+     * @param reimDTO The DTO containing reimbursement details.
+     * @throws IllegalArgumentException If the reimbursement data is invalid.
+     */
+    public void checkReimbursement(IncomingReimDTO reimDTO) throws IllegalArgumentException{
+
+        if(reimDTO.getAmount() <= 0 ){
+            throw new IllegalArgumentException("Enter a valid amount!");
+        }
+
+        if(reimDTO.getAmount() > 20000  ){
+            throw new IllegalArgumentException("Reimbursement Amount cannot be bigger than 20000!");
+        }
+
+        if(reimDTO.getDescription().equals("None")){
+            throw new IllegalArgumentException("Description cannot be None!");
+        }
+    }
+
+    /**
+     * Builds a page from rows fetched with one extra row beyond the page size.
+     * @param rows The rows fetched from the database, at most pageSize + 1 of them.
+     * @param pageSize The number of reimbursements in a full page.
+     * @return The page DTO, with a next cursor only if the extra row was found.
+     */
+    private OutgoingReimPageDTO getPageDTO(List<OutgoingReimDTO> rows, int pageSize){
+        if(rows.size() <= pageSize){
+            return new OutgoingReimPageDTO(rows, null);
+        }
+
+        // Drop the extra row, the last row of the page is where the following page starts
+        List<OutgoingReimDTO> outReimbursement = new ArrayList<>(rows.subList(0, pageSize));
+        return new OutgoingReimPageDTO(outReimbursement, encodeCursor(outReimbursement.get(pageSize - 1).getReimbId()));
+    }
+
+    /**
+     * Checks the status of a listing.
+     * @param status The status asked for.
+     * @return True for a reimbursement status, or ALL.
+     */
+    private static boolean isListingStatus(String status){
+        // ALL is not stored as a status, it means no status filter at all
+        return "ALL".equals(status) || ReimbursementStatus.isStatus(status);
+    }
+
+    /**
+     * Checks the requested page size.
+     * @param limit The requested page size, or null for the default one.
+     * @return The page size to use.
+     * @throws IllegalArgumentException If the limit is out of range.
+     */
+    private int checkPageSize(Integer limit){
+        if(limit == null){
+            return DEFAULT_PAGE_SIZE;
+        }
+        if(limit <= 0 || limit > MAX_PAGE_SIZE){
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        return limit;
+    }
+
+    // The cursor is the last reimbId of a page, Base64 encoded so clients treat it as an opaque token
+
+    /**
+     * Encodes the last reimbursement ID of a page as an opaque cursor.
+     * @param reimbId The ID of the last reimbursement of the page.
+     * @return The cursor of the following page.
+     */
+    private String encodeCursor(int reimbId){
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(reimbId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back to the reimbursement ID the following page starts after.
+     * @param next The cursor, or null for the first page.
+     * @return The reimbursement ID to seek after (0 for the first page).
+     * @throws IllegalArgumentException If the cursor is not valid.
+     */
+    private int decodeCursor(String next){
+        if(next == null || next.isBlank()){
+            return 0;
+        }
+        int reimbId;
+        try {
+            reimbId = Integer.parseInt(new String(Base64.getUrlDecoder().decode(next), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // Both a bad Base64 string and a NumberFormatException end up here
+            throw new IllegalArgumentException("Invalid page cursor!");
+        }
+        if(reimbId < 0){
+            throw new IllegalArgumentException("Invalid page cursor!");
+        }
+        return reimbId;
+    }
+
 }
@@ -0,0 +1,164 @@
+package com.revature.services;
+
+import com.revature.DAOs.ReimbursementDAO;
+import com.revature.models.DTOs.OutgoingStatusStatsDTO;
+import com.revature.models.ReimbursementStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live count and amount total of the reimbursements in each status, for the manager portal.
+ *
+ * The totals are loaded with one GROUP BY query at startup, then every write adjusts them once it commits.
+ * LongAdder cells are striped per thread, so concurrent writes don't fight over one counter,
+ * and reading the statistics costs a few additions instead of a query.
+ */
+@Component
+public class ReimbursementStats {
+
+    /**
+     * Count and amount total of one status.
+     */
+    private static class StatusCounter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalAmount = new LongAdder();
+
+        /**
+         * Adds reimbursements to the status, or removes them with negative values.
+         * @param count The number of reimbursements.
+         * @param amount The sum of their amounts.
+         */
+        void add(long count, long amount) {
+            this.count.add(count);
+            this.totalAmount.add(amount);
+        }
+    }
+
+    // Always listed, even when no reimbursement has them
+    private static final List<String> STATUSES = ReimbursementStatus.NAMES;
+
+    private final ReimbursementDAO reimbursementDAO;
+    private volatile Map<String, StatusCounter> counters = emptyCounters();
+
+    /**
+     * Constructor for ReimbursementStats.
+     * @param reimbursementDAO The data access object for reimbursement entities, used to load the totals.
+     */
+    @Autowired
+    public ReimbursementStats(ReimbursementDAO reimbursementDAO) {
+        this.reimbursementDAO = reimbursementDAO;
+    }
+
+    /**
+     * Loads the totals from the database. Runs at startup, before the server takes requests.
+     * Writes committed while the query runs can be missed, so call it again only when the app is quiet.
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<String, StatusCounter> loaded = emptyCounters();
+        for (OutgoingStatusStatsDTO row : reimbursementDAO.countByStatus()) {
+            loaded.computeIfAbsent(row.getStatus(), s -> new StatusCounter()).add(row.getCount(), row.getTotalAmount());
+        }
+        counters = loaded;
+    }
+
+    /**
+     * Counts a new reimbursement, once the current transaction commits.
+     * @param status The status of the new reimbursement.
+     * @param amount The amount of the new reimbursement.
+     */
+    public void added(String status, int amount) {
+        addedAll(status, 1, amount);
+    }
+
+    /**
+     * Counts new reimbursements with the same status, once the current transaction commits.
+     * @param status The status of the new reimbursements.
+     * @param count The number of new reimbursements.
+     * @param totalAmount The sum of their amounts.
+     */
+    public void addedAll(String status, long count, long totalAmount) {
+        TransactionCallbacks.afterCommit(() -> counter(status).add(count, totalAmount));
+    }
+
+    /**
+     * Moves a reimbursement from one status to another, once the current transaction commits.
+     * @param oldStatus The status before the update.
+     * @param newStatus The status after the update.
+     * @param amount The amount of the reimbursement.
+     */
+    public void statusChanged(String oldStatus, String newStatus, int amount) {
+        TransactionCallbacks.afterCommit(() -> {
+            counter(oldStatus).add(-1, -amount);
+            counter(newStatus).add(1, amount);
+        });
+    }
+
+    /**
+     * Stops counting a deleted reimbursement, once the current transaction commits.
+     * @param status The status of the deleted reimbursement.
+     * @param amount The amount of the deleted reimbursement.
+     */
+    public void removed(String status, int amount) {
+        TransactionCallbacks.afterCommit(() -> counter(status).add(-1, -amount));
+    }
+
+    /**
+     * Retrieves the count and amount total of every status, without touching the database.
+     * @return One DTO per status, PENDING, APPROVED and DENIED first.
+     */
+    public List<OutgoingStatusStatsDTO> getStats() {
+        Map<String, StatusCounter> current = counters;
+        List<OutgoingStatusStatsDTO> stats = new ArrayList<>(current.size());
+
+        for (String status : STATUSES) {
+            stats.add(getStatusStatsDTO(status, current.get(status)));
+        }
+        // Statuses outside the usual three can only come from old rows or a bad update, still show them
+        current.forEach((status, counter) -> {
+            if (!STATUSES.contains(status)) {
+                stats.add(getStatusStatsDTO(status, counter));
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Finds the counter of a status, creating it for a status outside the usual three.
+     * @param status The status.
+     * @return The counter.
+     */
+    private StatusCounter counter(String status) {
+        return counters.computeIfAbsent(status, s -> new StatusCounter());
+    }
+
+    /**
+     * Converts a counter to an OutgoingStatusStatsDTO.
+     * @param status The status of the counter.
+     * @param counter The counter.
+     * @return The statistics DTO.
+     */
+    private static OutgoingStatusStatsDTO getStatusStatsDTO(String status, StatusCounter counter) {
+        return new OutgoingStatusStatsDTO(status, counter.count.sum(), counter.totalAmount.sum());
+    }
+
+    /**
+     * Creates a zeroed counter for each of the usual statuses.
+     * @return The counters by status.
+     */
+    private static Map<String, StatusCounter> emptyCounters() {
+        Map<String, StatusCounter> empty = new ConcurrentHashMap<>();
+        for (String status : STATUSES) {
+            empty.put(status, new StatusCounter());
+        }
+        return empty;
+    }
+
+}
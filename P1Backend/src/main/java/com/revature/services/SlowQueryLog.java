@@ -0,0 +1,186 @@
+package com.revature.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revature.models.DTOs.OutgoingSlowQueryDTO;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement (the DataSource is wrapped by SlowQueryDataSourceWrapper) and keeps track of the slow ones:
+ * the statements that took at least slow-query.threshold-ms.
+ *
+ * A slow statement is logged with its time, the types of its parameters (never their values, they can be passwords)
+ * and the controller method it ran for. The same statement is logged at most once per slow-query.log-interval-seconds,
+ * the runs in between are only counted, so a slow listing under load doesn't flood the log.
+ * Every slow run is also added to a table per SQL statement, getTop returns its slowest slow-query.top-size rows.
+ *
+ * Fast statements cost a clock read and a comparison, nothing is written for them.
+ */
+@Component
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    /**
+     * The slow runs of one SQL statement, added up.
+     */
+    private static class SlowStatement {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLong lastLoggedAt = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong unlogged = new AtomicLong();
+        private volatile String parameters;
+        private volatile String origin;
+    }
+
+    private final long thresholdMillis;
+    private final int topSize;
+    private final long logIntervalNanos;
+
+    // Bounded, a flood of distinct statements (IN lists of every length) can't grow it without end
+    private final Cache<String, SlowStatement> statements = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
+
+    /**
+     * Constructor for SlowQueryLog.
+     * @param thresholdMillis The time from which a statement is slow, in milliseconds.
+     * @param topSize The number of rows getTop returns.
+     * @param logIntervalSeconds The minimum time between two log lines of the same statement.
+     */
+    public SlowQueryLog(@Value("${slow-query.threshold-ms:200}") long thresholdMillis,
+                        @Value("${slow-query.top-size:20}") int topSize,
+                        @Value("${slow-query.log-interval-seconds:10}") long logIntervalSeconds) {
+        this.thresholdMillis = thresholdMillis;
+        this.topSize = topSize;
+        this.logIntervalNanos = TimeUnit.SECONDS.toNanos(logIntervalSeconds);
+    }
+
+    /**
+     * Called by the DataSource proxy before a statement runs, nothing to do.
+     * @param execInfo The statement run.
+     * @param queryInfoList The SQL of the run.
+     */
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    /**
+     * Called by the DataSource proxy after a statement ran, records it if it was slow.
+     * @param execInfo The statement run, with its time.
+     * @param queryInfoList The SQL of the run, several for a batch of plain statements.
+     */
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            record(query.getQuery(), parameters(query), execInfo.getElapsedTime(), origin());
+        }
+    }
+
+    /**
+     * Records a slow run of a statement, and logs it unless the statement was logged a moment ago.
+     * @param sql The SQL of the statement.
+     * @param parameters The types of its parameters.
+     * @param elapsedMillis How long it ran.
+     * @param origin Where it ran from.
+     */
+    void record(String sql, String parameters, long elapsedMillis, String origin) {
+        SlowStatement statement = statements.get(sql, key -> new SlowStatement());
+        statement.count.increment();
+        statement.totalMillis.add(elapsedMillis);
+        statement.maxMillis.accumulateAndGet(elapsedMillis, Math::max);
+        statement.parameters = parameters;
+        statement.origin = origin;
+
+        long now = System.nanoTime();
+        long lastLoggedAt = statement.lastLoggedAt.get();
+        boolean due = lastLoggedAt == Long.MIN_VALUE || now - lastLoggedAt >= logIntervalNanos;
+        // Only the thread that moves lastLoggedAt logs, the others count themselves as unlogged
+        if (due && statement.lastLoggedAt.compareAndSet(lastLoggedAt, now)) {
+            long unlogged = statement.unlogged.getAndSet(0);
+            log.warn("Slow statement, {} ms in {} with parameters {}{}: {}", elapsedMillis, origin, parameters,
+                    unlogged == 0 ? "" : " (" + unlogged + " more slow runs since the last log)", sql);
+        } else {
+            statement.unlogged.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reads the slow statement table.
+     * @return The slow-query.top-size statements with the most time spent in slow runs, the slowest first.
+     */
+    public List<OutgoingSlowQueryDTO> getTop() {
+        return statements.asMap().entrySet().stream()
+                .map(entry -> new OutgoingSlowQueryDTO(entry.getKey(), entry.getValue().count.sum(),
+                        entry.getValue().totalMillis.sum(), entry.getValue().maxMillis.get(),
+                        entry.getValue().parameters, entry.getValue().origin))
+                .sorted(Comparator.comparingLong(OutgoingSlowQueryDTO::getTotalMillis).reversed())
+                .limit(topSize)
+                .toList();
+    }
+
+    /**
+     * Empties the slow statement table, to measure again after a fix.
+     */
+    public void reset() {
+        statements.invalidateAll();
+    }
+
+    /**
+     * Describes the parameters of a statement by their types, in order.
+     * @param query The SQL of the run and its parameters.
+     * @return For example [Integer, String], followed by " x 50" for a batch of 50.
+     */
+    private static String parameters(QueryInfo query) {
+        List<List<ParameterSetOperation>> sets = query.getParametersList();
+        if (sets.isEmpty()) {
+            return "[]";
+        }
+        String shape = sets.get(0).stream()
+                // args[0] is the parameter index, args[1] its value
+                .sorted(Comparator.comparing(operation -> String.valueOf(operation.getArgs()[0]),
+                        Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder())))
+                .map(operation -> ParameterSetOperation.isSetNullParameterOperation(operation) || operation.getArgs()[1] == null
+                        ? "null" : operation.getArgs()[1].getClass().getSimpleName())
+                .collect(Collectors.joining(", ", "[", "]"));
+        return sets.size() == 1 ? shape : shape + " x " + sets.size();
+    }
+
+    /**
+     * Finds where the current statement runs from.
+     * @return The controller method handling the current request, like ReimbursementController.getAllReimbursement,
+     * or the thread name outside of a request (imports, rollup rebuilds, startup).
+     */
+    private static String origin() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object handler = request == null ? null
+                : request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return "thread " + Thread.currentThread().getName();
+    }
+
+}
@@ -0,0 +1,355 @@
+package com.revature.services;
+
+import com.revature.DAOs.ReimbursementDAO;
+import com.revature.DAOs.SpendRollupDAO;
+import com.revature.DAOs.UserDAO;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingSpendRollupDTO;
+import com.revature.models.Reimbursement;
+import com.revature.models.SpendRollup;
+import com.revature.models.SpendRollupId;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.LockMode;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service class responsible for the monthly spend rollups: per user, per month (UTC) and per status,
+ * the number of reimbursements and their total amount.
+ *
+ * Every write to a reimbursement adds its change to the rollup rows in the same transaction,
+ * so the finance dashboards read a few rollup rows instead of scanning the reimbursement table.
+ * If the rollups ever drift (rows changed by hand in the database), rebuild() recomputes them.
+ *
+ * Changes and rebuilds lock the users whose rollups they write (UserDAO.lockByUserIdIn) before touching them,
+ * so a rebuild can run while reimbursements are written: a change either commits before the rebuild reads
+ * the user's reimbursements, or is applied on top of the rebuilt rows.
+ */
+// Every public method is timed, tagged with the class and method, see application.properties for the percentiles
+@Timed("service.operation")
+@Service
+public class SpendRollupService {
+
+    // Months the rollup query covers when the client doesn't say
+    public static final int DEFAULT_MONTHS = 12;
+
+    /**
+     * Changes to apply to the rollup rows, added up per row so every row is written once.
+     */
+    public static class Deltas {
+
+        private final Map<SpendRollupId, long[]> deltas = new HashMap<>();
+
+        /**
+         * Adds a change to the row of a reimbursement.
+         * @param userId The ID of the reimbursement's user.
+         * @param submittedAt When the reimbursement was submitted.
+         * @param status The status the change applies to.
+         * @param count The number of reimbursements added (negative when removed).
+         * @param amount The amount added (negative when removed).
+         * @return This Deltas, to chain calls.
+         */
+        public Deltas add(int userId, Instant submittedAt, String status, long count, long amount) {
+            long[] delta = deltas.computeIfAbsent(new SpendRollupId(userId, monthOf(submittedAt), status), k -> new long[2]);
+            delta[0] += count;
+            delta[1] += amount;
+            return this;
+        }
+
+        /**
+         * Checks if there is anything to apply.
+         * @return True if no change was added.
+         */
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        /**
+         * Lists the users whose rollup rows change.
+         * @return The IDs of the users, in ascending order.
+         */
+        private SortedSet<Integer> userIds() {
+            SortedSet<Integer> userIds = new TreeSet<>();
+            deltas.keySet().forEach(key -> userIds.add(key.getUserId()));
+            return userIds;
+        }
+    }
+
+    private final SpendRollupDAO spendRollupDAO;
+    private final ReimbursementDAO reimbursementDAO;
+    private final UserDAO userDAO;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkSize;
+    private final int rebuildWorkers;
+    private final WorkerThreads workerThreads;
+
+    // Used by the rebuild to insert the recomputed rows in JDBC batches
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for SpendRollupService.
+     * @param spendRollupDAO The data access object for spend rollup entities.
+     * @param reimbursementDAO The data access object for reimbursement entities, read by the rebuild.
+     * @param userDAO The data access object for user entities, read by the rebuild.
+     * @param transactionManager The transaction manager, each rebuild chunk runs in its own transaction.
+     * @param rebuildChunkSize The number of users whose rollups are recomputed together.
+     * @param rebuildWorkers The number of chunks recomputed in parallel.
+     * @param workerThreads Creates the rebuild threads, virtual ones in virtual thread mode.
+     */
+    @Autowired
+    public SpendRollupService(SpendRollupDAO spendRollupDAO,
+                              ReimbursementDAO reimbursementDAO,
+                              UserDAO userDAO,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${reimbursement.rollup.rebuild-chunk-size:100}") int rebuildChunkSize,
+                              @Value("${reimbursement.rollup.rebuild-workers:4}") int rebuildWorkers,
+                              WorkerThreads workerThreads) {
+        this.spendRollupDAO = spendRollupDAO;
+        this.reimbursementDAO = reimbursementDAO;
+        this.userDAO = userDAO;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.rebuildWorkers = rebuildWorkers;
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Counts a new reimbursement in its rollup row.
+     * @param r The new reimbursement.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void submitted(Reimbursement r) {
+        if (r.getUser() == null) {
+            return;
+        }
+        apply(new Deltas().add(r.getUser().getUserId(), r.getSubmittedAt(), r.getStatus(), 1, r.getAmount()));
+    }
+
+    /**
+     * Moves a reimbursement from the rollup row of its old status to the row of its new status.
+     * @param r The reimbursement, already holding its new status.
+     * @param oldStatus The status before the update.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(OutgoingReimDTO r, String oldStatus) {
+        apply(new Deltas()
+                .add(r.getUserId(), r.getSubmittedAt(), oldStatus, -1, -r.getAmount())
+                .add(r.getUserId(), r.getSubmittedAt(), r.getStatus(), 1, r.getAmount()));
+    }
+
+    /**
+     * Removes a deleted reimbursement from its rollup row.
+     * @param r The deleted reimbursement.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(Reimbursement r) {
+        if (r.getUser() == null) {
+            return;
+        }
+        apply(new Deltas().add(r.getUser().getUserId(), r.getSubmittedAt(), r.getStatus(), -1, -r.getAmount()));
+    }
+
+    /**
+     * Deletes the rollup rows of a deleted user.
+     * @param userId The ID of the user.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userDeleted(int userId) {
+        spendRollupDAO.deleteByUserIdIn(List.of(userId));
+    }
+
+    /**
+     * Applies changes to the rollup rows, in the caller's transaction.
+     * The users of the rows are locked until the transaction ends, see rebuild().
+     * @param deltas The changes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Deltas deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        userDAO.lockByUserIdIn(deltas.userIds());
+
+        deltas.deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            if (spendRollupDAO.addToRollup(key.getUserId(), key.getMonth(), key.getStatus(), delta[0], delta[1]) == 0
+                    && spendRollupDAO.insertRollupIfAbsent(key.getUserId(), key.getMonth(), key.getStatus(), delta[0], delta[1]) == 0) {
+                // Another transaction created the row between our UPDATE and INSERT
+                spendRollupDAO.addToRollup(key.getUserId(), key.getMonth(), key.getStatus(), delta[0], delta[1]);
+            }
+        });
+    }
+
+    /**
+     * Applies changes to the rollup rows through a stateless session, in the session's current transaction.
+     * Used by the CSV import, which doesn't write through the EntityManager.
+     * The users of the rows are locked until the transaction ends, like in apply(Deltas).
+     * @param deltas The changes.
+     * @param session The stateless session, with a transaction begun.
+     */
+    public void apply(Deltas deltas, StatelessSession session) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        session.createSelectionQuery(UserDAO.LOCK_USERS, Integer.class)
+                .setParameter("userIds", deltas.userIds())
+                .setHibernateLockMode(LockMode.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        deltas.deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            if (addToRollup(session, SpendRollupDAO.ADD_TO_ROLLUP, false, key, delta) == 0
+                    && addToRollup(session, SpendRollupDAO.INSERT_ROLLUP_IF_ABSENT, true, key, delta) == 0) {
+                addToRollup(session, SpendRollupDAO.ADD_TO_ROLLUP, false, key, delta);
+            }
+        });
+    }
+
+    /**
+     * Retrieves the rollup rows between two months, for one user or for everyone.
+     * @param userId The ID of the user, or null for every user.
+     * @param from The first month (yyyy-MM), or null for DEFAULT_MONTHS months before the last one.
+     * @param to The last month (yyyy-MM), or null for the current month.
+     * @return The rollup DTOs, ordered by user, month and status.
+     * @throws IllegalArgumentException If a month is not valid or the range is reversed.
+     */
+    public List<OutgoingSpendRollupDTO> getRollups(Integer userId, String from, String to) {
+        YearMonth last = to == null ? YearMonth.now(ZoneOffset.UTC) : parseMonth(to);
+        YearMonth first = from == null ? last.minusMonths(DEFAULT_MONTHS - 1) : parseMonth(from);
+
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("The first month must not be after the last month!");
+        }
+
+        if (userId == null) {
+            return spendRollupDAO.findOutgoingByMonthBetween(first.atDay(1), last.atDay(1));
+        }
+        return spendRollupDAO.findOutgoingByUserIdAndMonthBetween(userId, first.atDay(1), last.atDay(1));
+    }
+
+    /**
+     * Recomputes every rollup row from the reimbursement table.
+     * Users are split into chunks and the chunks are recomputed in parallel, each in its own transaction,
+     * so a big table is never read or locked in one go. Each chunk locks its users first, so it waits for the
+     * changes to them in flight, and the changes that come after wait for the chunk: nothing is lost or counted twice.
+     * No thread is held waiting for the rebuild, the future completes once every chunk is committed.
+     * @return The number of rollup rows written, or the failure of the first chunk that failed.
+     */
+    public CompletableFuture<Long> rebuild() {
+        List<Integer> userIds = userDAO.findAllUserIds();
+
+        ExecutorService workers = Executors.newFixedThreadPool(rebuildWorkers, workerThreads.named("rollup-rebuild-"));
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i += rebuildChunkSize) {
+            List<Integer> chunk = userIds.subList(i, Math.min(i + rebuildChunkSize, userIds.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> rebuildChunk(chunk)), workers));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(done -> chunks.stream().mapToLong(CompletableFuture::join).sum())
+                .whenComplete((rows, failure) -> workers.shutdown());
+    }
+
+    /**
+     * Recomputes the rollup rows of a chunk of users, in the current transaction.
+     * @param userIds The IDs of the users.
+     * @return The number of rollup rows written.
+     */
+    private int rebuildChunk(List<Integer> userIds) {
+        // Held until the chunk commits, changes to these users wait for it (and it waits for theirs)
+        userDAO.lockByUserIdIn(userIds);
+
+        Deltas totals = new Deltas();
+        for (OutgoingReimDTO r : reimbursementDAO.findOutgoingByUserIdIn(userIds)) {
+            totals.add(r.getUserId(), r.getSubmittedAt(), r.getStatus(), 1, r.getAmount());
+        }
+
+        spendRollupDAO.deleteByUserIdIn(userIds);
+
+        int rows = 0;
+        for (Map.Entry<SpendRollupId, long[]> entry : totals.deltas.entrySet()) {
+            SpendRollupId key = entry.getKey();
+            entityManager.persist(new SpendRollup(key.getUserId(), key.getMonth(), key.getStatus(), entry.getValue()[0], entry.getValue()[1]));
+
+            // Send each full batch of inserts and forget the inserted entities
+            if (++rows % ReimbursementService.INSERT_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Runs one of the rollup statements through a stateless session.
+     * @param session The stateless session.
+     * @param statement The HQL update, or the native SQL insert.
+     * @param nativeSql True if the statement is native SQL.
+     * @param key The rollup row.
+     * @param delta The count and amount to add.
+     * @return The number of rows changed.
+     */
+    private static int addToRollup(StatelessSession session, String statement, boolean nativeSql, SpendRollupId key, long[] delta) {
+        return (nativeSql ? session.createNativeMutationQuery(statement) : session.createMutationQuery(statement))
+                .setParameter("userId", key.getUserId())
+                .setParameter("month", key.getMonth())
+                .setParameter("status", key.getStatus())
+                .setParameter("count", delta[0])
+                .setParameter("amount", delta[1])
+                .executeUpdate();
+    }
+
+    /**
+     * Finds the rollup month of a submission time.
+     * @param submittedAt When the reimbursement was submitted, null for rows older than the column.
+     * @return The first day of the month, in UTC.
+     */
+    private static LocalDate monthOf(Instant submittedAt) {
+        // Rows from before submission times were recorded all land in the first month of the epoch
+        Instant at = submittedAt == null ? Instant.EPOCH : submittedAt;
+        return YearMonth.from(at.atZone(ZoneOffset.UTC)).atDay(1);
+    }
+
+    /**
+     * Parses a month sent by a client.
+     * @param month The month, as yyyy-MM.
+     * @return The month.
+     * @throws IllegalArgumentException If the month is not valid.
+     */
+    private static YearMonth parseMonth(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Months must look like 2024-01!");
+        }
+    }
+
+}
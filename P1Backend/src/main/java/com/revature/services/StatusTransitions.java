@@ -0,0 +1,45 @@
+package com.revature.services;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The status transitions a reimbursement can go through. A reimbursement is submitted PENDING,
+ * then a manager approves or denies it once, a decision is never changed afterwards.
+ *
+ * Status updates are conditional UPDATEs on the source statuses listed here, so the database itself
+ * refuses an illegal or already decided transition, without reading the row first.
+ */
+final class StatusTransitions {
+
+    // Source status -> statuses it can move to
+    private static final Map<String, List<String>> TRANSITIONS = Map.of(
+            "PENDING", List.of("APPROVED", "DENIED"));
+
+    private StatusTransitions() {
+    }
+
+    /**
+     * Checks a transition against the table.
+     * @param from The current status.
+     * @param to The status to move to.
+     * @return True if a reimbursement in the from status can move to the to status.
+     */
+    static boolean isAllowed(String from, String to) {
+        return TRANSITIONS.getOrDefault(from, List.of()).contains(to);
+    }
+
+    /**
+     * Lists the statuses a reimbursement can be in to move to a status, the WHERE clause of the conditional UPDATE.
+     * @param to The status to move to.
+     * @return The source statuses, empty if no status can move to it.
+     */
+    static List<String> sourcesOf(String to) {
+        return TRANSITIONS.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(to))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+}
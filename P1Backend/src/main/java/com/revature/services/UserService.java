@@ -2,17 +2,22 @@ package com.revature.services;
 
 import com.revature.DAOs.UserDAO;
 import com.revature.models.DTOs.IncomingUserDTO;
+import com.revature.models.DTOs.OutgoingHashingStatsDTO;
 import com.revature.models.DTOs.OutgoingReimDTO;
 import com.revature.models.DTOs.OutgoingUserDTO;
+import com.revature.models.DTOs.UserCredentialDTO;
 import com.revature.models.Reimbursement;
 import com.revature.models.User;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.xml.crypto.Data;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service Classes are used for data processing between controllers and DAOs
@@ -33,6 +38,8 @@ import java.util.Optional;
  * This class acts as an intermediary between controllers and DAOs,
  * providing business logic and data processing functionalities.
  */
+// Every public method is timed, tagged with the class and method, see application.properties for the percentiles
+@Timed("service.operation")
 @Service
 public class UserService {
 
@@ -40,15 +47,31 @@ public class UserService {
     // We need to inject UserDAO to use UserDAO methods
     // Autowire with constructor for dependency injection
     private UserDAO userDAO;
+    private ReimbursementCache reimbursementCache;
+    private ReimbursementStats reimbursementStats;
+    private SpendRollupService spendRollupService;
+    private PasswordHasher passwordHasher;
+    private LoginThrottle loginThrottle;
 
     /**
      * Constructor-based dependency injection for UserDAO.
      *
      * @param userDAO The UserDAO dependency to be injected.
+     * @param reimbursementCache The cache of the manager's listing pages, a deleted user's reimbursements leave them.
+     * @param reimbursementStats The live count and amount total of each status.
+     * @param spendRollupService The monthly spend rollups, a deleted user's rollups are deleted too.
+     * @param passwordHasher Hashes and checks the passwords, on its own threads.
+     * @param loginThrottle Blocks logins after too many failures for a username or from an IP.
      */
     @Autowired
-    public UserService(UserDAO userDAO) {
+    public UserService(UserDAO userDAO, ReimbursementCache reimbursementCache, ReimbursementStats reimbursementStats,
+                       SpendRollupService spendRollupService, PasswordHasher passwordHasher, LoginThrottle loginThrottle) {
         this.userDAO = userDAO;
+        this.reimbursementCache = reimbursementCache;
+        this.reimbursementStats = reimbursementStats;
+        this.spendRollupService = spendRollupService;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
     }
 
     // This is to make sure everything is done right by user
@@ -66,11 +89,36 @@ public class UserService {
     /**
      * Registers a new user based on the provided IncomingUserDTO.
      *
+     * The password is hashed on the hashing threads (see PasswordHasher), the user is saved once it is.
+     *
      * @param userDTO The IncomingUserDTO containing user registration details.
-     * @return The newly registered User object.
+     * @return The newly registered User object, once it is saved.
      * @throws IllegalArgumentException If registration parameters are invalid.
+     * @throws java.util.concurrent.RejectedExecutionException If too many passwords are being hashed already.
      */
-    public User registerUser(IncomingUserDTO userDTO) throws IllegalArgumentException {
+    public CompletableFuture<User> registerUser(IncomingUserDTO userDTO) throws IllegalArgumentException {
+
+        checkUser(userDTO);
+
+        //TODO: We could have made an exception handling service to clean all this up, which is typical
+
+        //if all checks pass, we can create a new User based off the DTO and send it to the DAO
+        //Only the bcrypt hash of the password is stored
+        return passwordHasher.hash(userDTO.getPassword()).thenApply(hash -> {
+            User newUser = new User(userDTO.getUsername(), userDTO.getFirstName(), userDTO.getLastName(), hash);
+
+            //save the user to the database and return that user at the same time
+            return userDAO.save(newUser);
+        });
+
+    }
+
+    /**
+     * Checks the details of a user to register, before anything is hashed or stored.
+     * @param userDTO The IncomingUserDTO containing user registration details.
+     * @throws IllegalArgumentException If registration parameters are invalid.
+     */
+    public void checkUser(IncomingUserDTO userDTO) throws IllegalArgumentException {
 
         //Check the username and password are not empty/null
         if (userDTO.getUsername() == null || userDTO.getUsername().isBlank() ) {
@@ -130,26 +178,25 @@ public class UserService {
         if (userDTO == null) {
             throw new IllegalArgumentException("This probably won't get thrown if we've written good code");
         }
-
-        //TODO: We could have made an exception handling service to clean all this up, which is typical
-
-        //if all checks pass, we can create a new User based off the DTO and send it to the DAO
-        User newUser = new User(userDTO.getUsername(), userDTO.getFirstName(), userDTO.getLastName(), userDTO.getPassword());
-
-        //save the user to the database and return that user at the same time
-        return userDAO.save(newUser);
-
     }
 
     /**
      * Authenticates a user based on the provided credentials.
+     * The password is checked against the stored bcrypt hash. A password still stored in plain text
+     * (or hashed with an older strength) is replaced by a new hash once it matches.
+     * Failures are counted per username and per IP, past the limit the attempt is refused without checking the password.
+     * Only the user's ID, role and stored password are read, with one query on the username.
+     * The password is checked on the hashing threads (see PasswordHasher), the rest of the login runs once it is.
      *
      * @param userDTO The IncomingUserDTO containing user credentials.
-     * @return An Optional containing the authenticated User object, or empty if authentication fails.
+     * @param clientIp The IP address the login comes from.
+     * @return An Optional containing the authenticated user, or empty if authentication fails, once the password is checked.
      * @throws IllegalArgumentException If authentication parameters are invalid.
+     * @throws IllegalStateException If the username or the IP has too many recent failed logins.
+     * @throws java.util.concurrent.RejectedExecutionException If too many passwords are being hashed already.
      */
     //This service will facilitate login - get a user from the DAO (or null)
-    public Optional<User> loginUser(IncomingUserDTO userDTO) throws IllegalArgumentException {
+    public CompletableFuture<Optional<OutgoingUserDTO>> loginUser(IncomingUserDTO userDTO, String clientIp) throws IllegalArgumentException {
 
         // Validity checks
         //Check the username and password are not empty/null
@@ -161,8 +208,39 @@ public class UserService {
             throw new IllegalArgumentException("Password cannot be empty");
         }
 
-        //if all checks pass, return a User OR null, and send it to the controller
-        return userDAO.findByUsernameAndPassword(userDTO.getUsername(), userDTO.getPassword());
+        if (loginThrottle.isBlocked(userDTO.getUsername(), clientIp)) {
+            throw new IllegalStateException("Too many failed logins, try again later!");
+        }
+
+        Optional<UserCredentialDTO> opC = userDAO.findCredentialByUsername(userDTO.getUsername());
+        if (opC.isEmpty()) {
+            // As slow as a wrong password, so response times don't tell which usernames exist
+            return passwordHasher.matchNothing(userDTO.getPassword()).thenApply(ignored -> {
+                loginThrottle.failedUnknownUsername(clientIp);
+                return Optional.empty();
+            });
+        }
+
+        UserCredentialDTO c = opC.get();
+        return passwordHasher.matches(userDTO.getPassword(), c.getCredential()).thenCompose(matches -> {
+            if (!matches) {
+                loginThrottle.failed(userDTO.getUsername(), clientIp);
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            loginThrottle.succeeded(userDTO.getUsername());
+
+            //if all checks pass, return the user, and send it to the controller
+            Optional<OutgoingUserDTO> user = Optional.of(new OutgoingUserDTO(c.getUserId(), userDTO.getUsername(), c.getRole()));
+
+            // Legacy plain text passwords are hashed on the user's next successful login
+            if (passwordHasher.needsRehash(c.getCredential())) {
+                return passwordHasher.hash(userDTO.getPassword()).thenApply(hash -> {
+                    userDAO.updatePassword(c.getUserId(), hash);
+                    return user;
+                });
+            }
+            return CompletableFuture.completedFuture(user);
+        });
 
     }
 
@@ -173,6 +251,7 @@ public class UserService {
      * @throws IllegalArgumentException If the specified user is not found.
      */
     //this method will delete a user by id
+    @Transactional
     public void deleteUser(int userId) {
 
         // Validity checks, taken care of in UserController
@@ -180,11 +259,24 @@ public class UserService {
         //make sure the user to delete actually exists
         //make sure the deleter is not trying to delete themselves
 
-        if (userDAO.findById(userId).isEmpty()) {
+        // The delete cascades to the user's reimbursements, so load them with the user in one query
+        // instead of one query for the user and another for the lazy list
+        Optional<User> opU = userDAO.findWithReimbursementByUserId(userId);
+        if (opU.isEmpty()) {
             throw new IllegalArgumentException("User not found");
         }
 
-        userDAO.deleteById(userId);
+        User u = opU.get();
+        userDAO.delete(u);
+        spendRollupService.userDeleted(userId);
+
+        // The user's reimbursements are gone with them
+        for (Reimbursement r : u.getReimbursement()) {
+            reimbursementStats.removed(r.getStatus(), r.getAmount());
+        }
+        if (!u.getReimbursement().isEmpty()) {
+            reimbursementCache.invalidateAll();
+        }
     }
 
     /**
@@ -256,6 +348,14 @@ public class UserService {
 
     }
 
+    /**
+     * Retrieves the statistics of the password hashing threads, the depth of their queue among them.
+     * @return The hashing statistics.
+     */
+    public OutgoingHashingStatsDTO getHashingStats() {
+        return passwordHasher.getStats();
+    }
+
     /**
      * Converts a User object to an OutgoingUserDTO object.
      * @param user The User object to convert.
@@ -263,10 +363,12 @@ public class UserService {
      */
     public OutgoingUserDTO getUserDTO(User user){
 
-        return new OutgoingUserDTO(
+        OutgoingUserDTO userDTO = new OutgoingUserDTO(
                 user.getUserId(),
                 user.getUsername(),
                 user.getRole());
+        userDTO.setLastModified(user.getLastModified());
+        return userDTO;
     }
 
 }
\ No newline at end of file
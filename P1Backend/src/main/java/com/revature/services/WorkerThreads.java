@@ -0,0 +1,59 @@
+package com.revature.services;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads of the application's own executors (CSV import, rollup rebuild, status events),
+ * as platform threads by default or as virtual threads when virtual threads are enabled.
+ *
+ * Virtual threads are on when spring.threads.virtual.enabled is true and the app runs on Java 21 or later,
+ * the same check Spring Boot uses to put Tomcat's request handling on virtual threads, so both always agree.
+ * The executors keep their sizes either way: they bound how many connections the background work takes
+ * from the pool, virtual threads only stop a worker blocked on JDBC from holding an OS thread.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    /**
+     * Constructor for WorkerThreads.
+     * @param environment The Spring environment, read for spring.threads.virtual.enabled.
+     */
+    public WorkerThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Tells if the executors run on virtual threads.
+     * @return True in virtual thread mode.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Creates threads named with a prefix and a number, so they are easy to spot in a thread dump.
+     * Platform threads are daemons, like virtual threads always are, so they never keep the JVM alive.
+     * @param prefix The prefix of the thread names.
+     * @return The thread factory.
+     */
+    public ThreadFactory named(String prefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
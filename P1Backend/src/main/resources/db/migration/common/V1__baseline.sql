@@ -0,0 +1,26 @@
+-- Baseline: the tables as Hibernate's ddl-auto=update created them before the schema had migrations.
+-- A database created that way is marked as being at this version instead (spring.flyway.baseline-on-migrate),
+-- so this script only runs on an empty schema, and every later migration upgrades both.
+-- Flyway runs every script in the p1database schema.
+
+CREATE TABLE users (
+    user_id integer GENERATED BY DEFAULT AS IDENTITY,
+    username varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    role varchar(255),
+    CONSTRAINT users_pkey PRIMARY KEY (user_id),
+    -- Also the index of the login lookup by username
+    CONSTRAINT users_username_key UNIQUE (username)
+);
+
+CREATE TABLE reimbursement (
+    reimb_id integer GENERATED BY DEFAULT AS IDENTITY,
+    description varchar(255),
+    status varchar(255),
+    amount integer NOT NULL,
+    user_id integer,
+    CONSTRAINT reimbursement_pkey PRIMARY KEY (reimb_id),
+    CONSTRAINT reimbursement_user_fk FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
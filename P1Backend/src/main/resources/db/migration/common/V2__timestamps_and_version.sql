@@ -0,0 +1,11 @@
+-- Submission and last write times, and the optimistic lock version.
+-- Existing rows get the time of the upgrade and version 0, a NULL version can't be loaded into the entity.
+
+ALTER TABLE users ADD COLUMN last_modified timestamp(6) with time zone;
+UPDATE users SET last_modified = CURRENT_TIMESTAMP;
+
+ALTER TABLE reimbursement ADD COLUMN submitted_at timestamp(6) with time zone;
+ALTER TABLE reimbursement ADD COLUMN last_modified timestamp(6) with time zone;
+ALTER TABLE reimbursement ADD COLUMN version bigint;
+UPDATE reimbursement SET submitted_at = CURRENT_TIMESTAMP, last_modified = CURRENT_TIMESTAMP, version = 0;
+ALTER TABLE reimbursement ALTER COLUMN version SET NOT NULL;
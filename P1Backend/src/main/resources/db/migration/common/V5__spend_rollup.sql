@@ -0,0 +1,17 @@
+-- Per user, per month (UTC) and per status count and amount total of the reimbursements,
+-- kept up to date by SpendRollupService. Built here from the existing reimbursements, still stored by status name.
+
+CREATE TABLE spend_rollup (
+    user_id integer NOT NULL,
+    spend_month date NOT NULL,
+    status varchar(255) NOT NULL,
+    reimbursement_count bigint NOT NULL,
+    total_amount bigint NOT NULL,
+    CONSTRAINT spend_rollup_pkey PRIMARY KEY (spend_month, user_id, status)
+);
+
+INSERT INTO spend_rollup (user_id, spend_month, status, reimbursement_count, total_amount)
+SELECT user_id, CAST(DATE_TRUNC('month', submitted_at AT TIME ZONE 'UTC') AS date), status, COUNT(*), SUM(amount)
+FROM reimbursement
+WHERE user_id IS NOT NULL AND status IS NOT NULL
+GROUP BY user_id, CAST(DATE_TRUNC('month', submitted_at AT TIME ZONE 'UTC') AS date), status;
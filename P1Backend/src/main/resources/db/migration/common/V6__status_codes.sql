@@ -0,0 +1,8 @@
+-- Statuses are stored as their ReimbursementStatus code instead of their name.
+-- Written as a new column swapped in for the old one, which both PostgreSQL and H2 run.
+
+ALTER TABLE reimbursement ADD COLUMN status_code smallint;
+UPDATE reimbursement SET status_code = CASE status WHEN 'PENDING' THEN 0 WHEN 'APPROVED' THEN 1 WHEN 'DENIED' THEN 2 END;
+ALTER TABLE reimbursement DROP COLUMN status;
+ALTER TABLE reimbursement RENAME COLUMN status_code TO status;
+ALTER TABLE reimbursement ADD CONSTRAINT reimbursement_status_check CHECK (status IN (0, 1, 2));
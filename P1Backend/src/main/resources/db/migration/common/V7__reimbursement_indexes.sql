@@ -0,0 +1,5 @@
+-- The foreign key to users: a user's listings, and deleting a user, find their reimbursements without a table scan
+CREATE INDEX IF NOT EXISTS reimbursement_user_idx ON reimbursement (user_id);
+
+-- Employees' status listings: one user's rows with a status, already in keyset order
+CREATE INDEX IF NOT EXISTS reimbursement_status_user_idx ON reimbursement (status, user_id, reimb_id);
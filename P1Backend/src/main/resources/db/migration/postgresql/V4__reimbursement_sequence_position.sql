@@ -0,0 +1,2 @@
+-- The next call returns MAX + 50, Hibernate then hands out MAX + 1 to MAX + 50: no ID the identity column gave is reused.
+SELECT setval('reimbursement_seq', (SELECT COALESCE(MAX(reimb_id), 0) + 50 FROM reimbursement), false);
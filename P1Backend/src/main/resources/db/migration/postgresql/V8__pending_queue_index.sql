@@ -0,0 +1,6 @@
+-- The manager's PENDING queue: only PENDING rows are in the index, so it stays as small as the queue
+-- however many decided rows pile up, and it holds every column the queue's page and ETag queries read,
+-- so they are index-only scans that never visit the table.
+CREATE INDEX IF NOT EXISTS reimbursement_pending_idx ON reimbursement (reimb_id)
+    INCLUDE (description, amount, user_id, submitted_at, last_modified, version)
+    WHERE status = 0;
@@ -0,0 +1,98 @@
+package com.revature.P1Backend;
+
+import com.revature.models.LoggedInUser;
+import com.revature.services.AuthTokens;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks token mode: a login gets a signed token and no HTTP session, the token is accepted by itself
+ * (cookie or Bearer header, on any instance sharing the secret), and a tampered or expired token is not.
+ */
+@SpringBootTest(properties = {"auth.mode=token", "auth.token.secret=" + AuthTokenTests.SECRET})
+class AuthTokenTests extends EndpointTestSupport {
+
+	static final String SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
+	@Autowired
+	private AuthTokens authTokens;
+
+	@Test
+	void loginIssuesTokenWithoutSession() throws Exception {
+		MvcResult login = performAsync(mockMvc, post("/users/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"employee\",\"password\":\"password1!\"}"))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertNull(login.getRequest().getSession(false));
+		Cookie token = login.getResponse().getCookie(AuthTokens.COOKIE);
+		assertNotNull(token);
+		assertTrue(token.isHttpOnly());
+
+		// The cookie alone logs the requests in
+		mockMvc.perform(get("/users/session").cookie(token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.userId").value(employee.getUserId()))
+				.andExpect(jsonPath("$.role").value("employee"));
+		mockMvc.perform(get("/reimbursements").cookie(token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void tokenFromAnotherInstanceIsAcceptedAsBearer() throws Exception {
+		// Another instance only shares the secret
+		String token = new AuthTokens("token", SECRET, 60).issue(employee.getUserId(), "employee");
+
+		mockMvc.perform(get("/users/session").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.userId").value(employee.getUserId()));
+	}
+
+	@Test
+	void tamperedOrForeignTokenIsRejected() throws Exception {
+		String token = authTokens.issue(employee.getUserId(), "employee");
+		String signature = token.substring(token.indexOf('.'));
+		String expiry = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8)
+				.split(":")[2];
+
+		// Promoting yourself to manager breaks the signature
+		String promoted = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((employee.getUserId() + ":manager:" + expiry).getBytes(StandardCharsets.UTF_8)) + signature;
+		mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, "Bearer " + promoted))
+				.andExpect(status().isUnauthorized());
+
+		// So does signing with another secret
+		String foreign = new AuthTokens("token", Base64.getEncoder().encodeToString(new byte[32]), 60)
+				.issue(employee.getUserId(), "manager");
+		mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, "Bearer " + foreign))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String expired = new AuthTokens("token", SECRET, 0).issue(employee.getUserId(), "employee");
+		assertTrue(authTokens.verify(expired).isEmpty());
+
+		LoggedInUser user = authTokens.verify(authTokens.issue(employee.getUserId(), "employee")).orElseThrow();
+		assertEquals(employee.getUserId(), user.getUserId());
+	}
+
+}
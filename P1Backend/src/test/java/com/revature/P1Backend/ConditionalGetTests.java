@@ -0,0 +1,127 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the ETags of the listings and of a user: an unchanged resource answers If-None-Match with a 304
+ * and no body, and any write to it gives a new ETag.
+ */
+class ConditionalGetTests extends EndpointTestSupport {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Reimbursement pending;
+
+	@BeforeEach
+	void setUp() {
+		pending = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+		reimbursementDAO.save(new Reimbursement("Taxi", 30, employee));
+	}
+
+	@Test
+	void unchangedManagerListingIsNotModifiedWithoutQueries() throws Exception {
+		String etag = etagOf("/reimbursements/status/PENDING", manager);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/reimbursements/status/PENDING").session(session(manager))
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		// The version of the listing is cached with its pages
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void unchangedEmployeeListingIsNotModifiedWithOneQuery() throws Exception {
+		String etag = etagOf("/reimbursements", employee);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/reimbursements").session(session(employee))
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		// Only the count/max query, the page isn't loaded
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void writesChangeTheListingETag() throws Exception {
+		String before = etagOf("/reimbursements", manager);
+
+		mockMvc.perform(patch("/reimbursements/" + pending.getReimbId()).session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"APPROVED\"}"))
+				.andExpect(status().isOk());
+
+		String afterUpdate = etagOf("/reimbursements", manager);
+		assertNotEquals(before, afterUpdate);
+		mockMvc.perform(get("/reimbursements").session(session(manager))
+				.header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(delete("/reimbursements/" + pending.getReimbId()).session(session(employee)))
+				.andExpect(status().isOk());
+
+		assertNotEquals(afterUpdate, etagOf("/reimbursements", manager));
+	}
+
+	@Test
+	void pagesOfTheSameListingHaveDifferentETags() throws Exception {
+		assertNotEquals(etagOf("/reimbursements?limit=1", manager), etagOf("/reimbursements?limit=2", manager));
+	}
+
+	@Test
+	void unchangedUserIsNotModifiedUntilUpdated() throws Exception {
+		String etag = etagOf("/users/" + employee.getUserId(), manager);
+
+		mockMvc.perform(get("/users/" + employee.getUserId()).session(session(manager))
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(patch("/users/" + employee.getUserId()).session(session(manager))
+				.contentType(MediaType.TEXT_PLAIN)
+				.content("manager"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/users/" + employee.getUserId()).session(session(manager))
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	/**
+	 * Performs a GET and returns the ETag of its response.
+	 * @param url The URL to get.
+	 * @param user The logged in user.
+	 * @return The ETag header of the 200 response.
+	 */
+	private String etagOf(String url, User user) throws Exception {
+		String etag = mockMvc.perform(get(url).session(session(user)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		return etag;
+	}
+
+}
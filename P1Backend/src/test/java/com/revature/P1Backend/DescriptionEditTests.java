@@ -0,0 +1,109 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that description edits are optimistic: the version is sent with every reimbursement,
+ * an If-Match on an old version gets a 412 without writing, and racing updates can't overwrite each other.
+ */
+class DescriptionEditTests extends EndpointTestSupport {
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Reimbursement hotel;
+
+	@BeforeEach
+	void setUp() {
+		hotel = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+	}
+
+	@Test
+	void listingsSendTheVersion() throws Exception {
+		mockMvc.perform(get("/reimbursements").session(session(employee)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reimbursements[0].version").value(0));
+	}
+
+	@Test
+	void matchingIfMatchUpdatesAndBumpsTheVersion() throws Exception {
+		mockMvc.perform(put("/reimbursements/" + hotel.getReimbId()).session(session(employee))
+				.header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\":\"Hotel, 2 nights\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.description").value("Hotel, 2 nights"))
+				.andExpect(jsonPath("$.version").value(1));
+	}
+
+	@Test
+	void staleIfMatchIsRejectedWithoutWriting() throws Exception {
+		mockMvc.perform(put("/reimbursements/" + hotel.getReimbId()).session(session(employee))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\":\"Hotel, 2 nights\"}"))
+				.andExpect(status().isOk());
+
+		// Edited from the version 0 copy, someone else's edit made it version 1
+		mockMvc.perform(put("/reimbursements/" + hotel.getReimbId()).session(session(employee))
+				.header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\":\"Hotel\"}"))
+				.andExpect(status().isPreconditionFailed());
+
+		assertEquals("Hotel, 2 nights", reimbursementDAO.findById(hotel.getReimbId()).get().getDescription());
+	}
+
+	@Test
+	void bodyWithoutDescriptionChangesNothing() throws Exception {
+		mockMvc.perform(put("/reimbursements/" + hotel.getReimbId()).session(session(employee))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"desc\":\"Hotel, 2 nights\"}"))
+				.andExpect(status().isOk())
+				.andExpect(content().string("The description of a reimbursement can't be removed!"));
+
+		assertEquals("Hotel", reimbursementDAO.findById(hotel.getReimbId()).get().getDescription());
+	}
+
+	@Test
+	void racingUpdateFailsInsteadOfOverwriting() throws Exception {
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(tx -> {
+			// Read version 0, then someone else commits an edit before this one is written
+			Reimbursement stale = reimbursementDAO.findById(hotel.getReimbId()).get();
+			// On another thread, so the other edit commits in its own transaction
+			CompletableFuture.runAsync(() -> {
+				try {
+					mockMvc.perform(put("/reimbursements/" + hotel.getReimbId()).session(session(employee))
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"description\":\"Hotel, 2 nights\"}"))
+							.andExpect(status().isOk());
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}).join();
+
+			stale.setDescription("Hotel, 1 night");
+			reimbursementDAO.saveAndFlush(stale);
+		}));
+
+		assertEquals("Hotel, 2 nights", reimbursementDAO.findById(hotel.getReimbId()).get().getDescription());
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.revature.P1Backend;
+
+import com.revature.DAOs.ReimbursementDAO;
+import com.revature.DAOs.SpendRollupDAO;
+import com.revature.DAOs.UserDAO;
+import com.revature.models.User;
+import com.revature.services.ReimbursementCache;
+import com.revature.services.ReimbursementStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The fixture the endpoint tests share: a manager and an employee saved before each test, every row deleted
+ * after it, and the sessions and async dispatches the requests need.
+ * A test class with settings of its own declares @SpringBootTest again with its properties.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+abstract class EndpointTestSupport {
+
+	@Autowired
+	protected MockMvc mockMvc;
+
+	@Autowired
+	protected UserDAO userDAO;
+
+	@Autowired
+	protected ReimbursementDAO reimbursementDAO;
+
+	@Autowired
+	protected SpendRollupDAO spendRollupDAO;
+
+	@Autowired
+	protected ReimbursementCache reimbursementCache;
+
+	@Autowired
+	protected ReimbursementStats reimbursementStats;
+
+	protected User manager;
+	protected User employee;
+
+	@BeforeEach
+	void saveStandardUsers() {
+		// Pages cached by another test hold rows that no longer exist
+		reimbursementCache.invalidateAll();
+
+		manager = userDAO.save(new User(0, "manager", "Manager", "User", "password1!", "manager"));
+		employee = userDAO.save(new User(0, "employee", "Employee", "User", "password1!", "employee"));
+	}
+
+	@AfterEach
+	void deleteAllRows() {
+		spendRollupDAO.deleteAll();
+		reimbursementDAO.deleteAll();
+		userDAO.deleteAll();
+		// The rows went around the services, the next test starts from empty statistics
+		reimbursementStats.rebuild();
+	}
+
+	/**
+	 * Builds a session for a logged in user, the same way UserController.loginUser does.
+	 * @param user The logged in user.
+	 * @return The session holding the user's ID and role.
+	 */
+	static MockHttpSession session(User user) {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("userId", user.getUserId());
+		session.setAttribute("role", user.getRole());
+		return session;
+	}
+
+	/**
+	 * Performs a request answered asynchronously, like the logins and registrations that wait for a password
+	 * to be hashed or checked: the request thread is released, the answer comes in an async dispatch.
+	 * @param mockMvc The MockMvc of the test.
+	 * @param builder The request.
+	 * @return The answer.
+	 */
+	static ResultActions performAsync(MockMvc mockMvc, RequestBuilder builder) throws Exception {
+		MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+		return mockMvc.perform(asyncDispatch(started));
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.revature.P1Backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.DAOs.ReimbursementDAO;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exports more rows than one database fetch holds, so the export has to clear the persistence context on the way,
+ * and checks every reimbursement comes out once, as its own line of JSON.
+ */
+class ExportTests extends EndpointTestSupport {
+
+	// Two full fetches and part of a third
+	private static final int ROWS = ReimbursementDAO.STREAM_FETCH_SIZE * 2 + 7;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// The owner of every saved reimbursement, by ID
+	private final Map<Integer, Integer> owners = new HashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		User other = userDAO.save(new User(0, "other", "Other", "User", "password1!", "employee"));
+
+		List<Reimbursement> rows = new ArrayList<>();
+		for (int i = 1; i <= ROWS; i++) {
+			rows.add(new Reimbursement("Expense " + i, i % 1000 + 1, i % 2 == 0 ? employee : other));
+		}
+		for (Reimbursement r : reimbursementDAO.saveAll(rows)) {
+			owners.put(r.getReimbId(), r.getUser().getUserId());
+		}
+	}
+
+	@Test
+	void everyReimbursementIsOneLineOfJson() throws Exception {
+		String body = performAsync(mockMvc, get("/reimbursements/export").session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(body.endsWith("\n"));
+		String[] lines = body.split("\n");
+		assertEquals(ROWS, lines.length);
+
+		int lastId = 0;
+		for (String line : lines) {
+			OutgoingReimDTO r = objectMapper.readValue(line, OutgoingReimDTO.class);
+			// In ID order, so no row is written twice
+			assertTrue(r.getReimbId() > lastId);
+			lastId = r.getReimbId();
+			assertEquals(owners.get(r.getReimbId()), r.getUserId());
+			assertEquals("PENDING", r.getStatus());
+		}
+	}
+
+	@Test
+	void onlyManagersCanExport() throws Exception {
+		// The errors are streamed like the export itself
+		performAsync(mockMvc, get("/reimbursements/export"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(content().string("First, you must be logged in!"));
+		performAsync(mockMvc, get("/reimbursements/export").session(session(employee)))
+				.andExpect(status().isForbidden())
+				.andExpect(content().string("You do not have permission to export reimbursements!"));
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the JSON Merge Patch of reimbursements: the fields sent are set together, the others are kept,
+ * and the status, ownership, amount and version rules still hold.
+ */
+class MergePatchTests extends EndpointTestSupport {
+
+	private User other;
+	private Reimbursement hotel;
+
+	@BeforeEach
+	void setUp() {
+		other = userDAO.save(new User(0, "other", "Other", "User", "password1!", "employee"));
+		hotel = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+	}
+
+	@Test
+	void managerPatchesEveryFieldAtOnce() throws Exception {
+		mockMvc.perform(mergePatch(manager, "{\"description\":\"Hotel, 2 nights\",\"amount\":180,\"status\":\"APPROVED\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.description").value("Hotel, 2 nights"))
+				.andExpect(jsonPath("$.amount").value(180))
+				.andExpect(jsonPath("$.status").value("APPROVED"))
+				.andExpect(jsonPath("$.version").value(1));
+
+		Reimbursement saved = reimbursementDAO.findById(hotel.getReimbId()).get();
+		assertEquals("Hotel, 2 nights", saved.getDescription());
+		assertEquals(180, saved.getAmount());
+		assertEquals("APPROVED", saved.getStatus());
+	}
+
+	@Test
+	void fieldsLeftOutAreKept() throws Exception {
+		mockMvc.perform(mergePatch(employee, "{\"amount\":120}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.description").value("Hotel"))
+				.andExpect(jsonPath("$.status").value("PENDING"))
+				.andExpect(jsonPath("$.amount").value(120));
+	}
+
+	@Test
+	void nullAndInvalidFieldsAreRejected() throws Exception {
+		mockMvc.perform(mergePatch(employee, "{\"description\":null}")).andExpect(status().isBadRequest());
+		mockMvc.perform(mergePatch(employee, "{}")).andExpect(status().isBadRequest());
+		mockMvc.perform(mergePatch(employee, "{\"amount\":0}")).andExpect(status().isBadRequest());
+		mockMvc.perform(mergePatch(manager, "{\"status\":\"PAID\"}")).andExpect(status().isBadRequest());
+
+		assertEquals(0, reimbursementDAO.findById(hotel.getReimbId()).get().getVersion());
+	}
+
+	@Test
+	void employeesOnlyPatchTheirOwnWithoutDeciding() throws Exception {
+		mockMvc.perform(mergePatch(employee, "{\"status\":\"APPROVED\"}")).andExpect(status().isUnauthorized());
+		mockMvc.perform(mergePatch(other, "{\"description\":\"Mine now\"}")).andExpect(status().isBadRequest());
+
+		assertEquals("Hotel", reimbursementDAO.findById(hotel.getReimbId()).get().getDescription());
+	}
+
+	@Test
+	void decidedReimbursementKeepsItsStatusAndAmount() throws Exception {
+		mockMvc.perform(mergePatch(manager, "{\"status\":\"DENIED\"}")).andExpect(status().isOk());
+
+		mockMvc.perform(mergePatch(manager, "{\"status\":\"APPROVED\"}")).andExpect(status().isConflict());
+		mockMvc.perform(mergePatch(employee, "{\"amount\":50}")).andExpect(status().isConflict());
+		// The description can still be corrected
+		mockMvc.perform(mergePatch(employee, "{\"description\":\"Hotel, 1 night\"}")).andExpect(status().isOk());
+	}
+
+	@Test
+	void staleIfMatchIsRejectedWithoutWriting() throws Exception {
+		mockMvc.perform(mergePatch(employee, "{\"description\":\"Hotel, 2 nights\"}")).andExpect(status().isOk());
+
+		mockMvc.perform(mergePatch(employee, "{\"amount\":150}").header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isPreconditionFailed());
+
+		assertEquals(100, reimbursementDAO.findById(hotel.getReimbId()).get().getAmount());
+	}
+
+	/**
+	 * Builds a merge patch request of the hotel reimbursement.
+	 * @param user The logged in user.
+	 * @param body The merge patch.
+	 * @return The PATCH request.
+	 */
+	private MockHttpServletRequestBuilder mergePatch(User user, String body) {
+		return patch("/reimbursements/" + hotel.getReimbId()).session(session(user))
+				.contentType("application/merge-patch+json")
+				.content(body);
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the Prometheus metrics endpoint: request timers tagged by endpoint and role with their percentiles,
+ * service operation timers tagged by role, Hibernate statistics and connection pool gauges.
+ */
+// Spring Boot tests leave the metrics registries out unless asked
+@AutoConfigureObservability
+class MetricsTests extends EndpointTestSupport {
+
+	@BeforeEach
+	void setUp() {
+		reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+	}
+
+	@Test
+	void requestsAreTimedByEndpointAndRole() throws Exception {
+		mockMvc.perform(get("/reimbursements").session(session(manager))).andExpect(status().isOk());
+		mockMvc.perform(get("/reimbursements/status/PENDING").session(session(employee))).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(matchesPattern(
+						"(?s).*http_server_requests_seconds_count\\{[^}]*role=\"manager\"[^}]*uri=\"/reimbursements\"[^}]*} .*")))
+				.andExpect(content().string(matchesPattern(
+						"(?s).*http_server_requests_seconds\\{[^}]*role=\"employee\"[^}]*uri=\"/reimbursements/status/\\{status}\"[^}]*quantile=\"0.99\"[^}]*} .*")))
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket{")));
+	}
+
+	@Test
+	void serviceOperationsAreTimed() throws Exception {
+		mockMvc.perform(get("/reimbursements").session(session(manager))).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(matchesPattern(
+						"(?s).*service_operation_seconds_count\\{[^}]*class=\"com.revature.services.ReimbursementService\"[^}]*method=\"getReimbursementPage\"[^}]*role=\"manager\"[^}]*} .*")))
+				.andExpect(content().string(matchesPattern(
+						"(?s).*service_operation_seconds\\{[^}]*quantile=\"0.95\"[^}]*} .*")));
+	}
+
+	@Test
+	void hibernateAndConnectionPoolAreExposed() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("hibernate_query_executions_total")))
+				.andExpect(content().string(containsString("hibernate_entities_loads_total")))
+				.andExpect(content().string(containsString("hibernate_statements_total")))
+				.andExpect(content().string(containsString("hikaricp_connections_active")))
+				.andExpect(content().string(containsString("password_hashing_queued")));
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.revature.P1Backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingReimPageDTO;
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import com.revature.services.ReimbursementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Follows the next cursors of the listings to their end: every reimbursement shows up exactly once, in ID order,
+ * the last page has no cursor, and employees only ever page through their own. Bad cursors and limits get a 400.
+ */
+class PaginationTests extends EndpointTestSupport {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// Rows of the employee and of another employee, interleaved so a page never holds only one owner
+	private final List<Integer> employeeIds = new ArrayList<>();
+	private final List<Integer> employeePendingIds = new ArrayList<>();
+	private final List<Integer> allIds = new ArrayList<>();
+	private final List<Integer> allPendingIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		User other = userDAO.save(new User(0, "other", "Other", "User", "password1!", "employee"));
+
+		for (int i = 1; i <= 7; i++) {
+			// Every third reimbursement is approved, the PENDING listings skip it
+			String status = i % 3 == 0 ? "APPROVED" : "PENDING";
+			int mine = save("Hotel " + i, i * 10, employee, status);
+			int theirs = save("Taxi " + i, i, other, status);
+
+			employeeIds.add(mine);
+			allIds.add(mine);
+			allIds.add(theirs);
+			if (status.equals("PENDING")) {
+				employeePendingIds.add(mine);
+				allPendingIds.add(mine);
+				allPendingIds.add(theirs);
+			}
+		}
+	}
+
+	@Test
+	void managerPagesEndWithoutCursor() throws Exception {
+		assertEquals(allIds, followPages("/reimbursements", manager, 4));
+		assertEquals(allPendingIds, followPages("/reimbursements/status/PENDING", manager, 3));
+		assertEquals(allIds, followPages("/reimbursements/status/ALL", manager, 5));
+	}
+
+	@Test
+	void employeePagesOnlyHoldTheirOwn() throws Exception {
+		assertEquals(employeeIds, followPages("/reimbursements", employee, 2));
+		assertEquals(employeePendingIds, followPages("/reimbursements/status/PENDING", employee, 2));
+	}
+
+	@Test
+	void pageExactlyAsBigAsTheRowsEndsWithoutCursor() throws Exception {
+		// Only an extra row fetched past the page gives a cursor, not a full page
+		assertEquals(employeeIds, followPages("/reimbursements", employee, employeeIds.size()));
+
+		mockMvc.perform(get("/reimbursements").session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reimbursements.length()").value(allIds.size()))
+				.andExpect(jsonPath("$.next").doesNotExist());
+	}
+
+	@Test
+	void badCursorsAreRejected() throws Exception {
+		String notANumber = Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.UTF_8));
+		String negative = Base64.getUrlEncoder().encodeToString("-5".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : List.of("not base64!", notANumber, negative)) {
+			mockMvc.perform(get("/reimbursements").param("next", cursor).session(session(manager)))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().string("Invalid page cursor!"));
+			mockMvc.perform(get("/reimbursements/status/PENDING").param("next", cursor).session(session(employee)))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().string("Invalid page cursor!"));
+		}
+	}
+
+	@Test
+	void limitsOutOfRangeAreRejected() throws Exception {
+		String message = "Limit must be between 1 and " + ReimbursementService.MAX_PAGE_SIZE + "!";
+
+		for (int limit : new int[]{0, -1, ReimbursementService.MAX_PAGE_SIZE + 1}) {
+			mockMvc.perform(get("/reimbursements").param("limit", "" + limit).session(session(manager)))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().string(message));
+			mockMvc.perform(get("/reimbursements/status/PENDING").param("limit", "" + limit).session(session(employee)))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().string(message));
+		}
+
+		mockMvc.perform(get("/reimbursements").param("limit", "1").session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reimbursements.length()").value(1));
+		mockMvc.perform(get("/reimbursements").param("limit", "" + ReimbursementService.MAX_PAGE_SIZE).session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reimbursements.length()").value(allIds.size()));
+	}
+
+	/**
+	 * Gets the pages of a listing one after another, sending back each page's next cursor, until a page has none.
+	 * Every page but the last one must be full.
+	 * @param url The listing.
+	 * @param user The logged in user.
+	 * @param limit The page size.
+	 * @return The IDs of every page, in the order they came.
+	 */
+	private List<Integer> followPages(String url, User user, int limit) throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		String next = null;
+		do {
+			MockHttpServletRequestBuilder request = get(url).param("limit", "" + limit).session(session(user));
+			if (next != null) {
+				request.param("next", next);
+			}
+			String body = mockMvc.perform(request)
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			OutgoingReimPageDTO page = objectMapper.readValue(body, OutgoingReimPageDTO.class);
+
+			assertTrue(page.getReimbursements().size() <= limit);
+			if (page.getNext() != null) {
+				assertEquals(limit, page.getReimbursements().size());
+			}
+			for (OutgoingReimDTO r : page.getReimbursements()) {
+				assertTrue(user.getRole().equals("manager") || r.getUserId() == user.getUserId());
+				ids.add(r.getReimbId());
+			}
+			next = page.getNext();
+		} while (next != null);
+		return ids;
+	}
+
+	/**
+	 * Saves a reimbursement around the services.
+	 * @return The ID of the reimbursement.
+	 */
+	private int save(String description, int amount, User user, String status) {
+		Reimbursement r = new Reimbursement(description, amount, user);
+		r.setStatus(status);
+		return reimbursementDAO.save(r).getReimbId();
+	}
+
+}
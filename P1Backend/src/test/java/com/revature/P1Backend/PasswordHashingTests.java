@@ -0,0 +1,102 @@
+package com.revature.P1Backend;
+
+import com.revature.models.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks password hashing: new passwords are stored hashed, legacy plain text passwords are hashed
+ * on the next successful login, repeated failed logins get throttled, and the request thread is released
+ * while a password is hashed or checked.
+ */
+class PasswordHashingTests extends EndpointTestSupport {
+
+	@Test
+	void registeredPasswordIsStoredHashed() throws Exception {
+		performAsync(mockMvc, post("/users").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"newhire\",\"firstName\":\"New\",\"lastName\":\"Hire\",\"password\":\"password1!\"}"))
+				.andExpect(status().isCreated());
+
+		String stored = userDAO.findCredentialByUsername("newhire").get().getCredential();
+		assertTrue(stored.startsWith("$2"));
+
+		performAsync(mockMvc, login("newhire", "password1!", "10.0.0.1")).andExpect(status().isOk());
+		performAsync(mockMvc, login("newhire", "wrong-password1!", "10.0.0.1")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void legacyPlainTextPasswordIsRehashedOnLogin() throws Exception {
+		userDAO.save(new User(0, "legacy", "Legacy", "User", "password1!", "employee"));
+
+		performAsync(mockMvc, login("legacy", "password1!", "10.0.0.2")).andExpect(status().isOk());
+
+		String stored = userDAO.findCredentialByUsername("legacy").get().getCredential();
+		assertTrue(stored.startsWith("$2"));
+		// Still the same password
+		performAsync(mockMvc, login("legacy", "password1!", "10.0.0.2")).andExpect(status().isOk());
+	}
+
+	@Test
+	void repeatedFailuresAreThrottled() throws Exception {
+		userDAO.save(new User(0, "target", "Target", "User", "password1!", "employee"));
+		userDAO.save(new User(0, "bystander", "Bystander", "User", "password1!", "employee"));
+
+		for (int i = 0; i < 5; i++) {
+			performAsync(mockMvc, login("target", "guess" + i + "!", "10.0.0.3")).andExpect(status().isUnauthorized());
+		}
+
+		// Even the right password is refused now, from any IP
+		performAsync(mockMvc, login("target", "password1!", "10.0.0.3")).andExpect(status().isTooManyRequests());
+		performAsync(mockMvc, login("target", "password1!", "10.0.0.4")).andExpect(status().isTooManyRequests());
+		// Other users from the same IP are not affected yet
+		performAsync(mockMvc, login("bystander", "password1!", "10.0.0.3")).andExpect(status().isOk());
+	}
+
+	@Test
+	void failuresOnUnknownUsernamesOnlyCountForTheIp() throws Exception {
+		// Made-up usernames don't get a count of their own, a flood of them can't push out the real ones
+		for (int i = 0; i < 6; i++) {
+			performAsync(mockMvc, login("ghost", "guess1!", "10.0.1." + i)).andExpect(status().isUnauthorized());
+		}
+		// Six failures from one IP are still under the per-IP limit
+		for (int i = 0; i < 6; i++) {
+			performAsync(mockMvc, login("ghost" + i, "guess1!", "10.0.0.6")).andExpect(status().isUnauthorized());
+		}
+	}
+
+	@Test
+	void managerSeesHashingStats() throws Exception {
+		performAsync(mockMvc, login("manager", "password1!", "10.0.0.5")).andExpect(status().isOk());
+
+		mockMvc.perform(get("/users/hashing-stats").session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.queued").value(0))
+				.andExpect(jsonPath("$.rejectedCount").value(0))
+				.andExpect(jsonPath("$.completedCount").isNumber());
+	}
+
+	/**
+	 * Builds a login request from a client IP.
+	 * @param username The username.
+	 * @param password The password.
+	 * @param ip The IP the login comes from.
+	 * @return The POST request.
+	 */
+	private RequestBuilder login(String username, String password, String ip) {
+		return post("/users/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}")
+				.with(request -> {
+					request.setRemoteAddr(ip);
+					return request;
+				});
+	}
+
+}
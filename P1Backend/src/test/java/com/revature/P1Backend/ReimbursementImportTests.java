@@ -0,0 +1,96 @@
+package com.revature.P1Backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports CSV files through the import endpoints and polls the jobs until they finish.
+ */
+@SpringBootTest(properties = "reimbursement.import.chunk-size=10")
+class ReimbursementImportTests extends EndpointTestSupport {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void importsValidRowsAndReportsInvalidOnes() throws Exception {
+		StringBuilder csv = new StringBuilder("userId,description,amount,status\n");
+		for (int i = 1; i <= 25; i++) {
+			csv.append(employee.getUserId()).append(",\"Hotel, night ").append(i).append("\",").append(i * 10).append(",APPROVED\n");
+		}
+		csv.append(employee.getUserId()).append(",Taxi,0\n");
+		csv.append(employee.getUserId()).append(",Taxi,30,PAID\n");
+		csv.append("-1,Taxi,30\n");
+		csv.append(employee.getUserId()).append(",Taxi\n");
+
+		JsonNode job = importFile(csv.toString());
+
+		assertEquals("COMPLETED", job.get("status").asText());
+		assertEquals(29, job.get("rowsRead").asLong());
+		assertEquals(25, job.get("rowsImported").asLong());
+		assertEquals(4, job.get("rowsFailed").asLong());
+		assertEquals(4, job.get("errors").size());
+		assertTrue(job.get("errors").get(0).asText().startsWith("Row 27:"));
+
+		assertEquals(25, reimbursementDAO.findByStatusAndUserUserId("APPROVED", employee.getUserId()).size());
+		assertTrue(reimbursementDAO.findByUserUserId(employee.getUserId()).stream()
+				.anyMatch(r -> r.getDescription().equals("Hotel, night 1")));
+	}
+
+	@Test
+	void fileWithoutHeaderFails() throws Exception {
+		JsonNode job = importFile(employee.getUserId() + ",Taxi,30\n");
+
+		assertEquals("FAILED", job.get("status").asText());
+		assertEquals(0, reimbursementDAO.count());
+	}
+
+	@Test
+	void employeesCannotImport() throws Exception {
+		MockMultipartFile file = new MockMultipartFile("file", "import.csv", "text/csv", "userId,description,amount\n".getBytes());
+
+		mockMvc.perform(multipart("/reimbursements/import").file(file).session(session(employee)))
+				.andExpect(status().isForbidden());
+	}
+
+	/**
+	 * Uploads a CSV file and polls its job until it is finished.
+	 * @param csv The content of the file.
+	 * @return The finished job.
+	 */
+	private JsonNode importFile(String csv) throws Exception {
+		MockMultipartFile file = new MockMultipartFile("file", "import.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+		String started = mockMvc.perform(multipart("/reimbursements/import").file(file).session(session(manager)))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse().getContentAsString();
+		String jobId = objectMapper.readTree(started).get("jobId").asText();
+
+		for (int attempt = 0; attempt < 100; attempt++) {
+			String body = mockMvc.perform(get("/reimbursements/import/" + jobId).session(session(manager)))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			JsonNode job = objectMapper.readTree(body);
+
+			String jobStatus = job.get("status").asText();
+			if (jobStatus.equals("COMPLETED") || jobStatus.equals("FAILED")) {
+				return job;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Import job " + jobId + " did not finish");
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the in-memory status statistics follow the writes, and that reading them doesn't query the database.
+ */
+class ReimbursementStatsTests extends EndpointTestSupport {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Reimbursement pending;
+
+	@BeforeEach
+	void setUp() {
+		pending = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+		reimbursementDAO.save(new Reimbursement("Taxi", 30, employee));
+		Reimbursement approved = new Reimbursement("Flight", 500, employee);
+		approved.setStatus("APPROVED");
+		reimbursementDAO.save(approved);
+
+		// The rows above were saved around the services, load them like at startup
+		reimbursementStats.rebuild();
+	}
+
+	@Test
+	void statsAreLoadedAtStartupAndReadWithoutQueries() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/reimbursements/stats").session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status").value("PENDING"))
+				.andExpect(jsonPath("$[0].count").value(2))
+				.andExpect(jsonPath("$[0].totalAmount").value(130))
+				.andExpect(jsonPath("$[1].status").value("APPROVED"))
+				.andExpect(jsonPath("$[1].count").value(1))
+				.andExpect(jsonPath("$[1].totalAmount").value(500))
+				.andExpect(jsonPath("$[2].status").value("DENIED"))
+				.andExpect(jsonPath("$[2].count").value(0));
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void statsFollowSubmitStatusUpdateAndDelete() throws Exception {
+		mockMvc.perform(post("/reimbursements").session(session(employee))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\":\"Dinner\",\"amount\":70}"))
+				.andExpect(status().isCreated());
+
+		mockMvc.perform(patch("/reimbursements/" + pending.getReimbId()).session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"DENIED\"}"))
+				.andExpect(status().isOk());
+
+		int taxiId = reimbursementDAO.findByUserUserId(employee.getUserId()).stream()
+				.filter(r -> r.getDescription().equals("Taxi")).findFirst().get().getReimbId();
+		mockMvc.perform(delete("/reimbursements/" + taxiId).session(session(employee)))
+				.andExpect(status().isOk());
+
+		// PENDING: Taxi and Hotel left, Dinner came in
+		mockMvc.perform(get("/reimbursements/stats").session(session(manager)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].count").value(1))
+				.andExpect(jsonPath("$[0].totalAmount").value(70))
+				.andExpect(jsonPath("$[1].count").value(1))
+				.andExpect(jsonPath("$[1].totalAmount").value(500))
+				.andExpect(jsonPath("$[2].count").value(1))
+				.andExpect(jsonPath("$[2].totalAmount").value(100));
+	}
+
+	@Test
+	void employeesCannotSeeStats() throws Exception {
+		mockMvc.perform(get("/reimbursements/stats").session(session(employee)))
+				.andExpect(status().isForbidden());
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.revature.P1Backend;
+
+import com.revature.DAOs.ReimbursementDAO;
+import com.revature.DAOs.SpendRollupDAO;
+import com.revature.DAOs.UserDAO;
+import com.revature.models.Reimbursement;
+import com.revature.models.SpendRollup;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the upgrade of a database created before the schema had migrations (see db/baseline-6cc66d2.sql):
+ * Flyway marks it as being at the baseline and runs the later migrations, then Hibernate validates it at startup.
+ * The existing rows get a submission time and a version, the reimbursement sequence starts past their IDs,
+ * the spend rollups are built from them and their statuses become codes.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + SchemaUpgradeTests.URL,
+		"spring.flyway.baseline-on-migrate=true",
+		"spring.flyway.baseline-version=1"})
+@AutoConfigureMockMvc
+class SchemaUpgradeTests {
+
+	// Its own database, kept open between connections, so it holds the old schema before the application starts
+	static final String URL = "jdbc:h2:mem:p1upgrade;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserDAO userDAO;
+
+	@Autowired
+	private ReimbursementDAO reimbursementDAO;
+
+	@Autowired
+	private SpendRollupDAO spendRollupDAO;
+
+	@BeforeAll
+	static void createOldDatabase() throws SQLException {
+		// Runs before the application context, and so before Flyway
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("RUNSCRIPT FROM 'classpath:db/baseline-6cc66d2.sql'");
+		}
+	}
+
+	@Test
+	void existingRowsAreUpgraded() {
+		assertEquals(List.of(0, 1, 0, 2), jdbcTemplate.queryForList(
+				"select status from p1database.reimbursement where reimb_id <= 4 order by reimb_id", Integer.class));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"select count(*) from p1database.reimbursement where submitted_at is null or version <> 0", Integer.class));
+
+		Reimbursement taxi = reimbursementDAO.findById(2).get();
+		assertEquals("APPROVED", taxi.getStatus());
+		assertEquals(0, taxi.getVersion());
+	}
+
+	@Test
+	void newReimbursementsGetUnusedIds() {
+		Reimbursement parking = reimbursementDAO.save(new Reimbursement("Parking", 30, userDAO.findById(1).get()));
+		try {
+			assertTrue(parking.getReimbId() > 4, "The sequence gave " + parking.getReimbId());
+		} finally {
+			reimbursementDAO.deleteById(parking.getReimbId());
+		}
+	}
+
+	@Test
+	void spendRollupsAreBuiltFromExistingRows() {
+		// The existing rows were all submitted at the upgrade
+		LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+
+		List<SpendRollup> rollups = spendRollupDAO.findAll();
+		assertEquals(3, rollups.size());
+		SpendRollup alicePending = rollups.stream()
+				.filter(r -> r.getUserId() == 1 && r.getStatus().equals("PENDING"))
+				.findFirst().get();
+		assertEquals(month, alicePending.getMonth());
+		assertEquals(2, alicePending.getReimbursementCount());
+		assertEquals(240, alicePending.getTotalAmount());
+	}
+
+	@Test
+	void existingUserCanLogIn() throws Exception {
+		EndpointTestSupport.performAsync(mockMvc, post("/users/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"bob\",\"password\":\"password1!\"}"))
+				.andExpect(status().isOk());
+	}
+
+}
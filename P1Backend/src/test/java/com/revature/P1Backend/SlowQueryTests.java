@@ -0,0 +1,85 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import com.revature.services.SlowQueryLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the slow statement log with every statement counted as slow: the table on /actuator/slowqueries,
+ * the origin of a statement, and that parameter values never reach the log.
+ */
+@SpringBootTest(properties = {"slow-query.threshold-ms=0", "slow-query.log-interval-seconds=3600"})
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryTests extends EndpointTestSupport {
+
+	@Autowired
+	private SlowQueryLog slowQueryLog;
+
+	@BeforeEach
+	void setUp() {
+		reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+		slowQueryLog.reset();
+	}
+
+	@Test
+	void slowStatementsAreListedWithTheirOrigin() throws Exception {
+		mockMvc.perform(get("/reimbursements").session(session(manager))).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/slowqueries"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[*].origin").value(hasItem("ReimbursementController.getAllReimbursement")))
+				.andExpect(jsonPath("$[0].sql").isString())
+				.andExpect(jsonPath("$[0].count").isNumber());
+
+		mockMvc.perform(delete("/actuator/slowqueries")).andExpect(status().isNoContent());
+		mockMvc.perform(get("/actuator/slowqueries"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(0)));
+	}
+
+	@Test
+	void repeatedStatementIsLoggedOnceAndCounted(CapturedOutput output) throws Exception {
+		int before = output.getOut().split("Slow statement", -1).length;
+		for (int i = 0; i < 3; i++) {
+			reimbursementCache.invalidateAll();
+			mockMvc.perform(get("/reimbursements").session(session(manager))).andExpect(status().isOk());
+		}
+
+		// Every statement of the listing ran three times but was logged once
+		mockMvc.perform(get("/actuator/slowqueries"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@.origin == 'ReimbursementController.getAllReimbursement')].count")
+						.value(hasItem(3)));
+		int statements = slowQueryLog.getTop().size();
+		assertTrue(output.getOut().split("Slow statement", -1).length - before <= statements);
+	}
+
+	@Test
+	void parameterValuesAreNotLogged(CapturedOutput output) throws Exception {
+		performAsync(mockMvc, post("/users/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"no-such-user-4821\",\"password\":\"password1!\"}"))
+				.andExpect(status().isUnauthorized());
+
+		assertTrue(output.getOut().contains("with parameters [String]"));
+		assertFalse(output.getOut().contains("no-such-user-4821"));
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import com.revature.models.SpendRollup;
+import com.revature.models.SpendRollupId;
+import com.revature.services.SpendRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the monthly spend rollups follow every write, and that a rebuild computes the same rows,
+ * even with a write in flight.
+ */
+class SpendRollupTests extends EndpointTestSupport {
+
+	@Autowired
+	private SpendRollupService spendRollupService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private LocalDate thisMonth;
+
+	@BeforeEach
+	void setUp() {
+		thisMonth = YearMonth.now(ZoneOffset.UTC).atDay(1);
+	}
+
+	@Test
+	void rollupsFollowSubmitStatusUpdateAndDelete() throws Exception {
+		submit("Hotel", 100);
+		submit("Taxi", 30);
+		submit("Dinner", 70);
+
+		List<Reimbursement> rows = reimbursementDAO.findByUserUserId(employee.getUserId());
+		mockMvc.perform(patch("/reimbursements/" + rows.get(0).getReimbId()).session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"APPROVED\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/reimbursements/" + rows.get(1).getReimbId()).session(session(employee)))
+				.andExpect(status().isOk());
+
+		assertRollup("PENDING", 1, rows.get(2).getAmount());
+		assertRollup("APPROVED", 1, rows.get(0).getAmount());
+	}
+
+	@Test
+	void rebuildComputesTheSameRowsAsTheWrites() throws Exception {
+		submit("Hotel", 100);
+		submit("Taxi", 30);
+		Reimbursement old = new Reimbursement("Flight", 500, employee);
+		old.setSubmittedAt(Instant.parse("2023-02-10T12:00:00Z"));
+		old.setStatus("DENIED");
+		reimbursementDAO.save(old);
+
+		List<SpendRollup> maintained = sorted(spendRollupDAO.findAll());
+
+		performAsync(mockMvc, post("/reimbursements/rollups/rebuild").session(session(manager)))
+				.andExpect(status().isOk());
+
+		List<SpendRollup> rebuilt = sorted(spendRollupDAO.findAll());
+		assertEquals(2, rebuilt.size());
+		assertEquals(maintained.get(0).toString(), rebuilt.get(1).toString());
+		assertEquals(LocalDate.of(2023, 2, 1), rebuilt.get(0).getMonth());
+		assertEquals(500, rebuilt.get(0).getTotalAmount());
+	}
+
+	@Test
+	void rebuildWaitsForChangesInFlight() throws Exception {
+		submit("Hotel", 100);
+
+		// A submission that has written its rollup change but not committed yet
+		CountDownLatch applied = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			Reimbursement taxi = reimbursementDAO.save(new Reimbursement("Taxi", 30, employee));
+			spendRollupService.submitted(taxi);
+			applied.countDown();
+			try {
+				commit.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}));
+		assertTrue(applied.await(5, TimeUnit.SECONDS));
+
+		CompletableFuture<Long> rebuild = spendRollupService.rebuild();
+		Thread.sleep(200);
+		// Waiting for the employee, not reading the reimbursements without the taxi
+		assertFalse(rebuild.isDone());
+
+		commit.countDown();
+		writer.get(5, TimeUnit.SECONDS);
+		rebuild.get(5, TimeUnit.SECONDS);
+
+		// The taxi counted once, not lost by the rebuild and not added twice
+		assertRollup("PENDING", 2, 130);
+	}
+
+	@Test
+	void employeesCantRebuild() throws Exception {
+		performAsync(mockMvc, post("/reimbursements/rollups/rebuild").session(session(employee)))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void employeesOnlySeeTheirOwnRollups() throws Exception {
+		submit("Hotel", 100);
+
+		mockMvc.perform(get("/reimbursements/rollups").session(session(employee)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].userId").value(employee.getUserId()))
+				.andExpect(jsonPath("$[0].month").value(YearMonth.from(thisMonth).toString()))
+				.andExpect(jsonPath("$[0].status").value("PENDING"))
+				.andExpect(jsonPath("$[0].count").value(1))
+				.andExpect(jsonPath("$[0].totalAmount").value(100));
+
+		mockMvc.perform(get("/reimbursements/rollups").param("userId", "" + manager.getUserId()).session(session(employee)))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(get("/reimbursements/rollups").param("from", "2024-13").session(session(manager)))
+				.andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Submits a reimbursement as the employee.
+	 * @param description The description of the reimbursement.
+	 * @param amount The amount of the reimbursement.
+	 */
+	private void submit(String description, int amount) throws Exception {
+		mockMvc.perform(post("/reimbursements").session(session(employee))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\":\"" + description + "\",\"amount\":" + amount + "}"))
+				.andExpect(status().isCreated());
+	}
+
+	/**
+	 * Checks the employee's rollup row for this month and a status.
+	 * @param status The status of the row.
+	 * @param count The expected number of reimbursements.
+	 * @param totalAmount The expected total amount.
+	 */
+	private void assertRollup(String status, long count, long totalAmount) {
+		SpendRollup rollup = spendRollupDAO.findById(new SpendRollupId(employee.getUserId(), thisMonth, status)).orElseThrow();
+		assertEquals(count, rollup.getReimbursementCount());
+		assertEquals(totalAmount, rollup.getTotalAmount());
+	}
+
+	/**
+	 * Sorts rollup rows by month and status, so two lists can be compared.
+	 * @param rollups The rollup rows.
+	 * @return The sorted rows.
+	 */
+	private List<SpendRollup> sorted(List<SpendRollup> rollups) {
+		assertTrue(rollups.stream().allMatch(r -> r.getUserId() == employee.getUserId()));
+		return rollups.stream()
+				.sorted(Comparator.comparing(SpendRollup::getMonth).thenComparing(SpendRollup::getStatus))
+				.toList();
+	}
+
+}
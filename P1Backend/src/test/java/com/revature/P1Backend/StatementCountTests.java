@@ -0,0 +1,204 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import com.revature.services.SpendRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each endpoint runs, so N+1 loading of users and reimbursements can't come back.
+ * Every user has several reimbursements, so any eager or per-row loading would show up as extra statements.
+ */
+class StatementCountTests extends EndpointTestSupport {
+
+	private static final int REIMBURSEMENTS_PER_USER = 5;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SpendRollupService spendRollupService;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		User other = userDAO.save(new User(0, "other", "Other", "User", "password1!", "employee"));
+
+		for (int i = 1; i <= REIMBURSEMENTS_PER_USER; i++) {
+			reimbursementDAO.save(new Reimbursement("Employee expense " + i, i * 10, employee));
+			reimbursementDAO.save(new Reimbursement("Other expense " + i, i * 10, other));
+		}
+
+		// The rows above were saved around the services, give them their rollups
+		spendRollupService.rebuild().join();
+	}
+
+	@Test
+	void managerListingRunsVersionAndPageStatements() throws Exception {
+		// one count/max query for the ETag, one for the page
+		assertStatements(2, get("/reimbursements").session(session(manager)));
+	}
+
+	@Test
+	void repeatedManagerListingIsServedFromCache() throws Exception {
+		assertStatements(2, get("/reimbursements/status/PENDING").session(session(manager)));
+		// both the version and the page are cached
+		assertStatements(0, get("/reimbursements/status/PENDING").session(session(manager)));
+	}
+
+	@Test
+	void statusUpdateInvalidatesCachedListing() throws Exception {
+		int reimbId = reimbursementDAO.findByUserUserId(employee.getUserId()).get(0).getReimbId();
+		mockMvc.perform(get("/reimbursements/status/PENDING").session(session(manager)));
+
+		mockMvc.perform(patch("/reimbursements/" + reimbId).session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"APPROVED\"}"))
+				.andExpect(status().isOk());
+
+		// the version and the page were both invalidated
+		assertStatements(2, get("/reimbursements/status/PENDING").session(session(manager)));
+	}
+
+	@Test
+	void bulkStatusUpdateRunsOneStatementPerStatus() throws Exception {
+		List<Reimbursement> rows = reimbursementDAO.findByUserUserId(employee.getUserId());
+		String body = "[" +
+				"{\"reimbId\":" + rows.get(0).getReimbId() + ",\"status\":\"APPROVED\"}," +
+				"{\"reimbId\":" + rows.get(1).getReimbId() + ",\"status\":\"APPROVED\"}," +
+				"{\"reimbId\":" + rows.get(2).getReimbId() + ",\"status\":\"DENIED\"}," +
+				"{\"reimbId\":" + rows.get(3).getReimbId() + ",\"status\":\"PENDING\"}," +
+				"{\"reimbId\":-1,\"status\":\"APPROVED\"}]";
+
+		// one select of the current statuses, one UPDATE for APPROVED and one for DENIED,
+		// one lock of the owner, then one upsert per rollup row: PENDING exists (update),
+		// APPROVED and DENIED are new (update that misses, insert)
+		assertStatements(9, patch("/reimbursements").session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body));
+
+		assertEquals("APPROVED", reimbursementDAO.findById(rows.get(1).getReimbId()).get().getStatus());
+		assertEquals("DENIED", reimbursementDAO.findById(rows.get(2).getReimbId()).get().getStatus());
+	}
+
+	@Test
+	void mergePatchRunsOneUpdate() throws Exception {
+		int reimbId = reimbursementDAO.findByUserUserId(employee.getUserId()).get(0).getReimbId();
+
+		// one select of the reimbursement's columns, one UPDATE of the description and amount together,
+		// then the owner is locked and the PENDING rollup row gets the new amount (update)
+		assertStatements(4, patch("/reimbursements/" + reimbId).session(session(employee))
+				.contentType("application/merge-patch+json")
+				.content("{\"description\":\"Taxi\",\"amount\":15}"));
+	}
+
+	@Test
+	void bulkSubmitInsertsInBatches() throws Exception {
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 1; i <= 40; i++) {
+			body.append(i > 1 ? "," : "").append("{\"description\":\"Card expense ").append(i).append("\",\"amount\":").append(i).append("}");
+		}
+		body.append("]");
+
+		statistics.clear();
+		mockMvc.perform(post("/reimbursements/bulk").session(session(employee))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body.toString()))
+				.andExpect(status().isCreated());
+
+		// one select of the user, at most two sequence calls, one batched insert instead of 40 inserts,
+		// one lock of the user and one update of the user's PENDING rollup row for the month
+		assertEquals(40, statistics.getEntityInsertCount());
+		assertTrue(statistics.getPrepareStatementCount() <= 6);
+		assertEquals(REIMBURSEMENTS_PER_USER + 40, reimbursementDAO.findByUserUserId(employee.getUserId()).size());
+	}
+
+	@Test
+	void employeeListingRunsVersionAndPageStatements() throws Exception {
+		assertStatements(2, get("/reimbursements").session(session(employee)));
+	}
+
+	@Test
+	void managerStatusListingRunsVersionAndPageStatements() throws Exception {
+		assertStatements(2, get("/reimbursements/status/PENDING").session(session(manager)));
+	}
+
+	@Test
+	void employeeStatusListingRunsVersionAndPageStatements() throws Exception {
+		assertStatements(2, get("/reimbursements/status/PENDING").session(session(employee)));
+	}
+
+	@Test
+	void loginDoesNotLoadReimbursements() throws Exception {
+		// The first login replaces the plain text password of the fixture with a hash, one more statement
+		assertHashingStatements(2, post("/users/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"employee\",\"password\":\"password1!\"}"));
+		assertHashingStatements(1, post("/users/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"employee\",\"password\":\"password1!\"}"));
+	}
+
+	@Test
+	void getUserDoesNotLoadReimbursements() throws Exception {
+		assertStatements(1, get("/users/" + employee.getUserId()).session(session(manager)));
+	}
+
+	@Test
+	void allUsersDoesNotLoadReimbursements() throws Exception {
+		assertStatements(1, get("/users").session(session(manager)));
+	}
+
+	@Test
+	void deleteReimbursementDoesNotLoadOwnerHistory() throws Exception {
+		int reimbId = reimbursementDAO.findByUserUserId(employee.getUserId()).get(0).getReimbId();
+
+		// one select of the reimbursement joined with its user, one delete, one lock of the owner
+		// and one update of its rollup row
+		assertStatements(4, delete("/reimbursements/" + reimbId).session(session(employee)));
+	}
+
+	/**
+	 * Performs the request and checks how many SQL statements it prepared.
+	 * @param expected The number of statements the request is allowed to run.
+	 * @param request The request to perform.
+	 */
+	private void assertStatements(long expected, RequestBuilder request) throws Exception {
+		statistics.clear();
+
+		mockMvc.perform(request).andExpect(status().isOk());
+
+		assertEquals(expected, statistics.getPrepareStatementCount());
+	}
+
+	/**
+	 * Performs a request answered once a password is checked (in an async dispatch), and checks how many
+	 * SQL statements it prepared.
+	 * @param expected The number of statements the request is allowed to run.
+	 * @param builder The request to perform.
+	 */
+	private void assertHashingStatements(long expected, RequestBuilder builder) throws Exception {
+		statistics.clear();
+
+		performAsync(mockMvc, builder).andExpect(status().isOk());
+
+		assertEquals(expected, statistics.getPrepareStatementCount());
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import com.revature.services.ReimbursementEventRegistry;
+import com.revature.services.WorkerThreads;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Opens event streams and checks that status changes reach their owner's streams, and only those.
+ */
+class StatusEventTests extends EndpointTestSupport {
+
+	@Autowired
+	private WorkerThreads workerThreads;
+
+	private User other;
+	private Reimbursement reimbursement;
+
+	@BeforeEach
+	void setUp() {
+		other = userDAO.save(new User(0, "other", "Other", "User", "password1!", "employee"));
+		reimbursement = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+	}
+
+	@Test
+	void statusChangeIsPushedToTheOwnerOnly() throws Exception {
+		MvcResult ownerStream = mockMvc.perform(get("/reimbursements/events").session(session(employee)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult otherStream = mockMvc.perform(get("/reimbursements/events").session(session(other)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(patch("/reimbursements/" + reimbursement.getReimbId()).session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"APPROVED\"}"))
+				.andExpect(status().isOk());
+
+		String event = awaitContent(ownerStream, "APPROVED");
+		assertTrue(event.contains("event:status"));
+		assertTrue(event.contains("id:" + reimbursement.getReimbId()));
+		assertFalse(otherStream.getResponse().getContentAsString().contains("APPROVED"));
+	}
+
+	@Test
+	void bulkStatusChangeIsPushed() throws Exception {
+		MvcResult ownerStream = mockMvc.perform(get("/reimbursements/events").session(session(employee)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(patch("/reimbursements").session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"reimbId\":" + reimbursement.getReimbId() + ",\"status\":\"DENIED\"}]"))
+				.andExpect(status().isOk());
+
+		awaitContent(ownerStream, "DENIED");
+	}
+
+	@Test
+	void evictedConnectionsAreNotCounted() {
+		// Its own registry, with 2 connections per user, so the application's count is left alone
+		ReimbursementEventRegistry registry = new ReimbursementEventRegistry(30, 25, 2, 1, workerThreads);
+		try {
+			for (int i = 0; i < 5; i++) {
+				registry.subscribe(employee.getUserId());
+			}
+			registry.subscribe(other.getUserId());
+
+			assertEquals(3, registry.getConnectionCount());
+		} finally {
+			registry.shutdown();
+		}
+	}
+
+	@Test
+	void streamNeedsLogin() throws Exception {
+		mockMvc.perform(get("/reimbursements/events"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	/**
+	 * Waits until a stream received some text. Events are sent by another thread after the update commits.
+	 * @param stream The open stream.
+	 * @param expected The text to wait for.
+	 * @return Everything the stream received.
+	 */
+	private String awaitContent(MvcResult stream, String expected) throws Exception {
+		for (int attempt = 0; attempt < 100; attempt++) {
+			String content = stream.getResponse().getContentAsString();
+			if (content.contains(expected)) {
+				return content;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("The stream never received " + expected);
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.revature.P1Backend;
+
+import com.revature.DAOs.ReimbursementDAO;
+import com.revature.DAOs.SpendRollupDAO;
+import com.revature.DAOs.UserDAO;
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks how the status is stored: as its small integer code, with a check constraint keeping other codes out,
+ * and with the indexes the migrations create: (status, user) behind the employees' status listings, and the user foreign key.
+ */
+@SpringBootTest
+class StatusStorageTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserDAO userDAO;
+
+	@Autowired
+	private ReimbursementDAO reimbursementDAO;
+
+	@Autowired
+	private SpendRollupDAO spendRollupDAO;
+
+	@AfterEach
+	void tearDown() {
+		spendRollupDAO.deleteAll();
+		reimbursementDAO.deleteAll();
+		userDAO.deleteAll();
+	}
+
+	@Test
+	void statusIsStoredAsItsCode() {
+		User employee = userDAO.save(new User(0, "employee", "Employee", "User", "password1!", "employee"));
+		Reimbursement hotel = new Reimbursement("Hotel", 100, employee);
+		hotel.setStatus("DENIED");
+		hotel = reimbursementDAO.save(hotel);
+
+		assertEquals(2, jdbcTemplate.queryForObject(
+				"select status from p1database.reimbursement where reimb_id = ?", Integer.class, hotel.getReimbId()));
+		assertEquals("DENIED", reimbursementDAO.findById(hotel.getReimbId()).get().getStatus());
+		assertEquals(1, reimbursementDAO.findOutgoingByStatus("DENIED").size());
+	}
+
+	@Test
+	void unknownCodesAreRejected() {
+		User employee = userDAO.save(new User(0, "employee", "Employee", "User", "password1!", "employee"));
+		Reimbursement hotel = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"update p1database.reimbursement set status = 7 where reimb_id = ?", hotel.getReimbId()));
+	}
+
+	@Test
+	void statusAndUserAreIndexed() {
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"select count(*) from information_schema.indexes where index_name = 'reimbursement_status_user_idx'",
+				Integer.class));
+	}
+
+	@Test
+	void userForeignKeyIsIndexed() {
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"select count(*) from information_schema.indexes where index_name = 'reimbursement_user_idx'",
+				Integer.class));
+	}
+
+}
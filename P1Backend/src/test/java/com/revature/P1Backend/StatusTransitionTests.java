@@ -0,0 +1,122 @@
+package com.revature.P1Backend;
+
+import com.revature.models.Reimbursement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that statuses only move along the transition table (PENDING to APPROVED or DENIED, once),
+ * and that of several managers deciding the same reimbursement at once exactly one wins.
+ */
+class StatusTransitionTests extends EndpointTestSupport {
+
+	private Reimbursement hotel;
+
+	@BeforeEach
+	void setUp() {
+		hotel = reimbursementDAO.save(new Reimbursement("Hotel", 100, employee));
+
+		reimbursementStats.rebuild();
+	}
+
+	@Test
+	void pendingCanBeApproved() throws Exception {
+		mockMvc.perform(decide(hotel.getReimbId(), "APPROVED"))
+				.andExpect(status().isOk())
+				.andExpect(content().string("Reimbursement status updated to APPROVED!"));
+
+		assertEquals("APPROVED", reimbursementDAO.findById(hotel.getReimbId()).get().getStatus());
+	}
+
+	@Test
+	void decidedReimbursementCannotBeDecidedAgain() throws Exception {
+		mockMvc.perform(decide(hotel.getReimbId(), "APPROVED")).andExpect(status().isOk());
+
+		mockMvc.perform(decide(hotel.getReimbId(), "DENIED"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(decide(hotel.getReimbId(), "PENDING"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(decide(hotel.getReimbId(), "APPROVED"))
+				.andExpect(content().string("Status is already APPROVED. No action taken!"));
+
+		assertEquals("APPROVED", reimbursementDAO.findById(hotel.getReimbId()).get().getStatus());
+	}
+
+	@Test
+	void unknownStatusOrReimbursementIsRejected() throws Exception {
+		mockMvc.perform(decide(hotel.getReimbId(), "PAID"))
+				.andExpect(content().string("No status named PAID is found!"));
+		mockMvc.perform(decide(-1, "APPROVED"))
+				.andExpect(content().string("No reimbursement found!"));
+	}
+
+	@Test
+	void concurrentDecisionsHaveExactlyOneWinner() throws Exception {
+		int managers = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<String>> decisions = new ArrayList<>();
+		for (int i = 0; i < managers; i++) {
+			String status = i % 2 == 0 ? "APPROVED" : "DENIED";
+			decisions.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+					return mockMvc.perform(decide(hotel.getReimbId(), status)).andReturn().getResponse().getContentAsString();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}));
+		}
+		start.countDown();
+
+		// Losers get a 409, or a message saying the status already is theirs
+		long updated = decisions.stream().map(CompletableFuture::join)
+				.filter(body -> body.startsWith("Reimbursement status updated")).count();
+		assertEquals(1, updated);
+		String finalStatus = reimbursementDAO.findById(hotel.getReimbId()).get().getStatus();
+
+		// The statistics count the reimbursement once, in the winner's status
+		mockMvc.perform(get("/reimbursements/stats").session(session(manager)))
+				.andExpect(jsonPath("$[0].count").value(0))
+				.andExpect(jsonPath("$[?(@.status == '" + finalStatus + "')].count").value(1));
+		assertEquals(1, reimbursementDAO.findByStatus(finalStatus).size());
+	}
+
+	@Test
+	void bulkRejectsIllegalTransitions() throws Exception {
+		mockMvc.perform(decide(hotel.getReimbId(), "DENIED")).andExpect(status().isOk());
+
+		mockMvc.perform(patch("/reimbursements").session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"reimbId\":" + hotel.getReimbId() + ",\"status\":\"APPROVED\"}]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].result").value("INVALID_TRANSITION"));
+
+		assertEquals("DENIED", reimbursementDAO.findById(hotel.getReimbId()).get().getStatus());
+	}
+
+	/**
+	 * Builds a manager's request to set the status of a reimbursement.
+	 * @param reimbId The ID of the reimbursement.
+	 * @param status The status to set.
+	 * @return The PATCH request.
+	 */
+	private RequestBuilder decide(int reimbId, String status) {
+		return patch("/reimbursements/" + reimbId).session(session(manager))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"" + status + "\"}");
+	}
+
+}
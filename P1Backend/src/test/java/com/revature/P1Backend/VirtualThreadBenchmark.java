@@ -0,0 +1,249 @@
+package com.revature.P1Backend;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares request handling on Tomcat's platform thread pool with virtual threads, for the employee listing
+ * (GET /reimbursements) and submit (POST /reimbursements) endpoints: throughput and p99 latency of each.
+ *
+ * Not part of the normal build, run it with: mvn test -Pbenchmark (and -Pjava21 on Java 21 for the virtual run,
+ * on Java 17 only the platform run happens). The report is printed and written to target/virtual-thread-benchmark.txt.
+ * It starts the app once per mode on a random port, with the same connection pool size in both,
+ * and drives it with more concurrent clients than Tomcat has platform threads.
+ *
+ * The default database is in-memory H2, where nothing really blocks, so the difference shows best against
+ * PostgreSQL: add -Dspring.datasource.url=jdbc:postgresql://... -Dspring.datasource.username=... -Dspring.datasource.password=...
+ * Other knobs: -Dbenchmark.clients (default 400), -Dbenchmark.seconds (default 20), -Dbenchmark.warmup-seconds (default 5).
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmark {
+
+	private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+	private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+	private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup-seconds", 5);
+	private static final int POOL_SIZE = 20;
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	@Test
+	void compareListingAndSubmitThroughput() throws Exception {
+		List<String> report = new ArrayList<>();
+		report.add(String.format("%-9s %-8s %10s %10s %10s %10s", "mode", "endpoint", "requests", "req/s", "p50 ms", "p99 ms"));
+
+		report.addAll(run("platform", false));
+		if (Runtime.version().feature() >= 21) {
+			report.addAll(run("virtual", true));
+		} else {
+			report.add("virtual   skipped, virtual threads need Java 21 (build and run with -Pjava21)");
+		}
+
+		// Printed, and kept next to the surefire reports
+		String text = String.join(System.lineSeparator(), report) + System.lineSeparator();
+		System.out.print(text);
+		Files.writeString(Path.of("target", "virtual-thread-benchmark.txt"), text);
+	}
+
+	/**
+	 * Starts the app in one mode, drives it with the clients and returns one report line per endpoint.
+	 * @param mode The name of the mode in the report.
+	 * @param virtual True to handle requests on virtual threads.
+	 * @return The report lines.
+	 */
+	private List<String> run(String mode, boolean virtual) throws Exception {
+		// Defaults only: -D system properties (a PostgreSQL URL for instance) take precedence
+		ConfigurableApplicationContext app = new SpringApplicationBuilder(P1BackendApplication.class)
+				.properties(
+						"server.port=0",
+						"spring.threads.virtual.enabled=" + virtual,
+						"spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+						"spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+						"spring.jpa.show-sql=false",
+						"spring.jpa.properties.hibernate.generate_statistics=false")
+				.run();
+		try {
+			String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+
+			List<String> cookies = new ArrayList<>();
+			for (int i = 0; i < CLIENTS; i++) {
+				cookies.add(registerAndLogin(baseUrl, "bench" + mode + i));
+			}
+
+			ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+			try {
+				drive(clients, baseUrl, cookies, WARMUP_SECONDS);
+				long[][] latencies = drive(clients, baseUrl, cookies, SECONDS);
+				return List.of(line(mode, "listing", latencies[0]), line(mode, "submit", latencies[1]));
+			} finally {
+				clients.shutdownNow();
+			}
+		} finally {
+			app.close();
+		}
+	}
+
+	/**
+	 * Has every client alternate listing and submit requests for a while.
+	 * @param clients The client threads.
+	 * @param baseUrl The URL of the app.
+	 * @param cookies The session cookie of each client.
+	 * @param seconds How long to drive the app.
+	 * @return The latencies in nanoseconds, of the listing requests then of the submit requests.
+	 */
+	private long[][] drive(ExecutorService clients, String baseUrl, List<String> cookies, int seconds) throws Exception {
+		long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+		List<Future<long[][]>> results = new ArrayList<>();
+		for (String cookie : cookies) {
+			results.add(clients.submit(() -> {
+				LatencyLog listing = new LatencyLog();
+				LatencyLog submit = new LatencyLog();
+				HttpRequest list = HttpRequest.newBuilder(URI.create(baseUrl + "/reimbursements?limit=20"))
+						.header("Cookie", cookie).GET().build();
+				HttpRequest post = HttpRequest.newBuilder(URI.create(baseUrl + "/reimbursements"))
+						.header("Cookie", cookie).header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString("{\"description\":\"Taxi\",\"amount\":25}")).build();
+
+				while (System.nanoTime() < end) {
+					listing.time(() -> send(list, 200));
+					submit.time(() -> send(post, 201));
+				}
+				return new long[][] {listing.toArray(), submit.toArray()};
+			}));
+		}
+
+		List<long[]> listing = new ArrayList<>();
+		List<long[]> submit = new ArrayList<>();
+		for (Future<long[][]> result : results) {
+			listing.add(result.get()[0]);
+			submit.add(result.get()[1]);
+		}
+		return new long[][] {concat(listing), concat(submit)};
+	}
+
+	/**
+	 * Registers an employee and logs them in.
+	 * @param baseUrl The URL of the app.
+	 * @param username The username of the employee.
+	 * @return The session cookie.
+	 */
+	private String registerAndLogin(String baseUrl, String username) throws Exception {
+		String credentials = "{\"username\":\"" + username + "\",\"firstName\":\"Bench\",\"lastName\":\"Mark\",\"password\":\"password1!\"}";
+		send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(credentials)).build(), 201);
+
+		HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(credentials)).build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, login.statusCode());
+		return login.headers().firstValue("Set-Cookie").orElseThrow().split(";")[0];
+	}
+
+	/**
+	 * Sends a request and checks its status code.
+	 * @param request The request.
+	 * @param expectedStatus The status code of a successful response.
+	 */
+	private void send(HttpRequest request, int expectedStatus) {
+		try {
+			HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() != expectedStatus) {
+				throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Formats the report line of one endpoint.
+	 * @param mode The name of the mode.
+	 * @param endpoint The name of the endpoint.
+	 * @param latencies The latencies of its requests, in nanoseconds.
+	 * @return The report line.
+	 */
+	private static String line(String mode, String endpoint, long[] latencies) {
+		Arrays.sort(latencies);
+		return String.format("%-9s %-8s %10d %10.0f %10.1f %10.1f", mode, endpoint, latencies.length,
+				latencies.length / (double) SECONDS, percentile(latencies, 0.50), percentile(latencies, 0.99));
+	}
+
+	/**
+	 * Reads a percentile of sorted latencies.
+	 * @param sorted The latencies in nanoseconds, sorted.
+	 * @param percentile The percentile, between 0 and 1.
+	 * @return The latency at the percentile, in milliseconds.
+	 */
+	private static double percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+
+	/**
+	 * Concatenates the latencies of every client.
+	 * @param parts The latencies of each client.
+	 * @return All the latencies.
+	 */
+	private static long[] concat(List<long[]> parts) {
+		return parts.stream().flatMapToLong(Arrays::stream).toArray();
+	}
+
+	/**
+	 * The latencies of one client for one endpoint, without boxing.
+	 */
+	private static class LatencyLog {
+		private long[] nanos = new long[1024];
+		private int size;
+
+		/**
+		 * Runs a request and records how long it took.
+		 * @param request The request.
+		 */
+		void time(Runnable request) {
+			long start = System.nanoTime();
+			request.run();
+			if (size == nanos.length) {
+				nanos = Arrays.copyOf(nanos, size * 2);
+			}
+			nanos[size++] = System.nanoTime() - start;
+		}
+
+		/**
+		 * Copies the recorded latencies.
+		 * @return The latencies in nanoseconds.
+		 */
+		long[] toArray() {
+			return Arrays.copyOf(nanos, size);
+		}
+	}
+
+}
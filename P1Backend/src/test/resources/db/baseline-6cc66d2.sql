@@ -0,0 +1,36 @@
+-- A database as the application created it before the schema had migrations (ddl-auto=update, commit 6cc66d2),
+-- scripted from H2 after a run of that version: two users, with plain text passwords, and four reimbursements.
+-- SchemaUpgradeTests upgrades it with the migrations.
+
+CREATE SCHEMA IF NOT EXISTS p1database;
+
+CREATE TABLE p1database.reimbursement (
+    reimb_id INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 1 RESTART WITH 5) NOT NULL,
+    amount INTEGER NOT NULL,
+    description CHARACTER VARYING(255),
+    status CHARACTER VARYING(255),
+    user_id INTEGER
+);
+ALTER TABLE p1database.reimbursement ADD CONSTRAINT p1database.constraint_e PRIMARY KEY (reimb_id);
+INSERT INTO p1database.reimbursement VALUES
+    (1, 120, 'Hotel', 'PENDING', 1),
+    (2, 120, 'Taxi', 'APPROVED', 1),
+    (3, 120, 'Meals', 'PENDING', 1),
+    (4, 450, 'Flight', 'DENIED', 2);
+
+CREATE TABLE p1database.users (
+    user_id INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 1 RESTART WITH 3) NOT NULL,
+    first_name CHARACTER VARYING(255),
+    last_name CHARACTER VARYING(255),
+    password CHARACTER VARYING(255),
+    role CHARACTER VARYING(255),
+    username CHARACTER VARYING(255)
+);
+ALTER TABLE p1database.users ADD CONSTRAINT p1database.constraint_6 PRIMARY KEY (user_id);
+INSERT INTO p1database.users VALUES
+    (1, 'Alice', 'Smith', 'password1!', 'employee', 'alice'),
+    (2, 'Bob', 'Jones', 'password1!', 'employee', 'bob');
+
+ALTER TABLE p1database.users ADD CONSTRAINT p1database.uk_r43af9ap4edm43mmtq01oddj6 UNIQUE (username);
+ALTER TABLE p1database.reimbursement ADD CONSTRAINT p1database.fk8q9e4sxv8vj0in5rq7lb0fd1f
+    FOREIGN KEY (user_id) REFERENCES p1database.users (user_id);
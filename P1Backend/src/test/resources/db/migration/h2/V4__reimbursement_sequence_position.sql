@@ -0,0 +1,2 @@
+-- The H2 version of postgresql/V4, H2 has no setval: the next call returns MAX + 50.
+ALTER SEQUENCE reimbursement_seq RESTART WITH (SELECT COALESCE(MAX(reimb_id), 0) + 50 FROM reimbursement);
@@ -0,0 +1,73 @@
+package com.revature.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.Reimbursement;
+import com.revature.models.User;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The inputs shared by the benchmarks: reimbursements shaped like the real ones, and a Jackson mapper
+ * configured like the application's.
+ */
+final class BenchmarkData {
+
+    private static final String[] STATUSES = {"PENDING", "APPROVED", "DENIED"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a mapper configured like the one Spring Boot gives the application:
+     * Spring's defaults, the Java time module, and dates written as ISO-8601 strings.
+     * @return A new mapper.
+     */
+    static ObjectMapper applicationMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Builds reimbursement entities, owned by a hundred users, with every status.
+     * @param count The number of reimbursements.
+     * @return The reimbursements, with IDs, submission times and versions set as if they were loaded.
+     */
+    static List<Reimbursement> reimbursements(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            users.add(new User(i, "user" + i, "First" + i, "Last" + i, "$2a$10$hash", "employee"));
+        }
+
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        List<Reimbursement> reimbursements = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Reimbursement r = new Reimbursement(i, "Hotel and meals for client visit " + i,
+                    STATUSES[i % STATUSES.length], 25 + (i * 37) % 20000, users.get(i % users.size()));
+            r.setSubmittedAt(start.plusSeconds(i * 60L));
+            r.setVersion(i % 3);
+            reimbursements.add(r);
+        }
+        return reimbursements;
+    }
+
+    /**
+     * Builds the DTOs the listings return, for the same reimbursements as reimbursements(count).
+     * @param count The number of DTOs.
+     * @return The DTOs.
+     */
+    static List<OutgoingReimDTO> outgoingReimbursements(int count) {
+        List<OutgoingReimDTO> dtos = new ArrayList<>(count);
+        for (Reimbursement r : reimbursements(count)) {
+            dtos.add(new OutgoingReimDTO(r.getReimbId(), r.getDescription(), r.getStatus(), r.getAmount(),
+                    r.getUser().getUserId(), r.getSubmittedAt(), r.getVersion()));
+        }
+        return dtos;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.revature.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.models.DTOs.IncomingReimDescriptionDTO;
+import com.revature.models.DTOs.IncomingReimStatusDTO;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the JSON work of the reimbursement endpoints, with a mapper configured like the application's:
+ * writing listings of OutgoingReimDTO, and reading the bodies of ReimbursementController.updateStatus and
+ * updateDescription. The body reads bind the same DTOs the controller's @RequestBody does, without the database work
+ * around them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonBenchmark {
+
+    /**
+     * The listing to write, in each size, kept apart so the body reads don't run once per size.
+     */
+    @State(Scope.Benchmark)
+    public static class Listing {
+
+        // A page, the biggest page (ReimbursementService.MAX_PAGE_SIZE), and a full export worth of rows
+        @Param({"50", "500", "10000"})
+        private int size;
+
+        private List<OutgoingReimDTO> reimbursements;
+
+        @Setup
+        public void setUp() {
+            reimbursements = BenchmarkData.outgoingReimbursements(size);
+        }
+    }
+
+    private ObjectMapper objectMapper;
+
+    private final String statusBody = "{\"status\":\"APPROVED\"}";
+    private final String descriptionBody = "{\"description\":\"Hotel and meals for the client visit in Chicago\"}";
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkData.applicationMapper();
+    }
+
+    @Benchmark
+    public byte[] writeListing(Listing listing) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listing.reimbursements);
+    }
+
+    @Benchmark
+    public IncomingReimStatusDTO readStatusBody() throws JsonProcessingException {
+        return objectMapper.readValue(statusBody, IncomingReimStatusDTO.class);
+    }
+
+    @Benchmark
+    public IncomingReimDescriptionDTO readDescriptionBody() throws JsonProcessingException {
+        return objectMapper.readValue(descriptionBody, IncomingReimDescriptionDTO.class);
+    }
+
+}
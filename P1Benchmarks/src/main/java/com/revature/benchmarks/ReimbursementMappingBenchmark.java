@@ -0,0 +1,57 @@
+package com.revature.benchmarks;
+
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.Reimbursement;
+import com.revature.services.ReimbursementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times ReimbursementService.getReimDTO over a listing of entities, the mapping every entity based read goes through.
+ * The service only needs its collaborators for the database, none of them are used here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReimbursementMappingBenchmark {
+
+    // A page, the biggest page (ReimbursementService.MAX_PAGE_SIZE), and a full export worth of rows
+    @Param({"50", "500", "10000"})
+    private int size;
+
+    private ReimbursementService reimbursementService;
+    private List<Reimbursement> reimbursements;
+
+    @Setup
+    public void setUp() {
+        reimbursementService = new ReimbursementService(null, null, BenchmarkData.applicationMapper(),
+                null, null, null, null);
+        reimbursements = BenchmarkData.reimbursements(size);
+    }
+
+    @Benchmark
+    public List<OutgoingReimDTO> mapToOutgoingDTOs() {
+        List<OutgoingReimDTO> dtos = new ArrayList<>(reimbursements.size());
+        for (Reimbursement r : reimbursements) {
+            dtos.add(reimbursementService.getReimDTO(r));
+        }
+        return dtos;
+    }
+
+}
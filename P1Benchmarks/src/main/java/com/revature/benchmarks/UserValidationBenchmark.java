@@ -0,0 +1,59 @@
+package com.revature.benchmarks;
+
+import com.revature.models.DTOs.IncomingUserDTO;
+import com.revature.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times UserService.checkUser, the checks registerUser runs before hashing the password and saving the user.
+ * The password rule is a regular expression checked with String.matches, which compiles it on every call,
+ * so the checks are timed for a valid user and for a user whose password breaks the rule.
+ * Hashing and saving are left out: bcrypt would take all the time, and is measured by the hashing pool metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserValidationBenchmark {
+
+    private UserService userService;
+    private IncomingUserDTO validUser;
+    private IncomingUserDTO weakPasswordUser;
+
+    @Setup
+    public void setUp() {
+        // checkUser uses none of the collaborators
+        userService = new UserService(null, null, null, null, null, null);
+        validUser = new IncomingUserDTO("jdoe", "John", "Doe", "password1!");
+        weakPasswordUser = new IncomingUserDTO("jdoe", "John", "Doe", "password");
+    }
+
+    @Benchmark
+    public void validUser() {
+        userService.checkUser(validUser);
+    }
+
+    @Benchmark
+    public void weakPassword(Blackhole blackhole) {
+        try {
+            userService.checkUser(weakPasswordUser);
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+}
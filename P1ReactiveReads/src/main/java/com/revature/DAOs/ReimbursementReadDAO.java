@@ -0,0 +1,119 @@
+package com.revature.DAOs;
+
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.ReimbursementStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Reads reimbursements from P1Backend's reimbursement table through R2DBC, straight into OutgoingReimDTOs.
+ * Read only: the table and its schema belong to P1Backend, the schema is picked in spring.r2dbc.url.
+ * Statuses are stored as their ReimbursementStatus codes, the queries filter on the code and the DTOs get the name.
+ *
+ * Every query is ordered by reimbId and seeks past a reimbId, like P1Backend's listing pages.
+ * Rows are fetched from a database cursor FETCH_SIZE at a time and only when the subscriber asks
+ * for more, so a slow reader holds back the query instead of rows piling up in memory.
+ */
+@Repository
+public class ReimbursementReadDAO {
+
+    // Rows fetched per round trip while a result is streamed
+    static final int FETCH_SIZE = 256;
+
+    private static final String SELECT = "select reimb_id, description, status, amount, user_id, submitted_at, version " +
+            "from reimbursement ";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructor for ReimbursementReadDAO.
+     * @param databaseClient The R2DBC client of the connection pool.
+     */
+    public ReimbursementReadDAO(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Streams every reimbursement after a reimbursement ID.
+     * @param reimbId The ID to seek after (0 for the beginning).
+     * @return The reimbursements, ordered by ID.
+     */
+    public Flux<OutgoingReimDTO> findOutgoing(int reimbId) {
+        return stream(databaseClient.sql(SELECT + "where reimb_id > :reimbId order by reimb_id")
+                .bind("reimbId", reimbId));
+    }
+
+    /**
+     * Streams the reimbursements of a user after a reimbursement ID.
+     * @param userId The ID of the user.
+     * @param reimbId The ID to seek after (0 for the beginning).
+     * @return The reimbursements, ordered by ID.
+     */
+    public Flux<OutgoingReimDTO> findOutgoingByUserId(int userId, int reimbId) {
+        return stream(databaseClient.sql(SELECT + "where user_id = :userId and reimb_id > :reimbId order by reimb_id")
+                .bind("userId", userId)
+                .bind("reimbId", reimbId));
+    }
+
+    /**
+     * Streams the reimbursements with a status after a reimbursement ID.
+     * @param status The status.
+     * @param reimbId The ID to seek after (0 for the beginning).
+     * @return The reimbursements, ordered by ID.
+     */
+    public Flux<OutgoingReimDTO> findOutgoingByStatus(String status, int reimbId) {
+        return stream(databaseClient.sql(SELECT + "where status = :status and reimb_id > :reimbId order by reimb_id")
+                .bind("status", ReimbursementStatus.valueOf(status).getCode())
+                .bind("reimbId", reimbId));
+    }
+
+    /**
+     * Streams the reimbursements of a user with a status after a reimbursement ID.
+     * @param status The status.
+     * @param userId The ID of the user.
+     * @param reimbId The ID to seek after (0 for the beginning).
+     * @return The reimbursements, ordered by ID.
+     */
+    public Flux<OutgoingReimDTO> findOutgoingByStatusAndUserId(String status, int userId, int reimbId) {
+        return stream(databaseClient.sql(SELECT + "where status = :status and user_id = :userId and reimb_id > :reimbId order by reimb_id")
+                .bind("status", ReimbursementStatus.valueOf(status).getCode())
+                .bind("userId", userId)
+                .bind("reimbId", reimbId));
+    }
+
+    /**
+     * Runs a query with a cursor and maps its rows as they arrive.
+     * @param query The query with its parameters bound.
+     * @return The reimbursements.
+     */
+    private Flux<OutgoingReimDTO> stream(DatabaseClient.GenericExecuteSpec query) {
+        return query.filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReimbursementReadDAO::toDTO)
+                .all();
+    }
+
+    /**
+     * Builds a DTO from a reimbursement row.
+     * @param row The row.
+     * @return The DTO.
+     */
+    private static OutgoingReimDTO toDTO(Readable row) {
+        OffsetDateTime submittedAt = row.get("submitted_at", OffsetDateTime.class);
+        Long version = row.get("version", Long.class);
+        Integer userId = row.get("user_id", Integer.class);
+        return new OutgoingReimDTO(
+                row.get("reimb_id", Integer.class),
+                row.get("description", String.class),
+                ReimbursementStatus.fromCode(row.get("status", Short.class)).name(),
+                row.get("amount", Integer.class),
+                // A reimbursement can be saved without a user, and old rows without a timestamp or version
+                userId == null ? 0 : userId,
+                submittedAt == null ? null : submittedAt.toInstant(),
+                version == null ? 0 : version);
+    }
+
+}
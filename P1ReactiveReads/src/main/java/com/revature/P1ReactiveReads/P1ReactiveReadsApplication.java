@@ -0,0 +1,28 @@
+package com.revature.P1ReactiveReads;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+Employee Reimbursement System (ERS), reactive read API
+Serves the reimbursement listings of P1Backend (all reimbursements and by status) without blocking:
+it runs on WebFlux (Netty) and reads PostgreSQL through R2DBC, so a few event loop threads serve
+thousands of concurrent readers instead of one thread per in-flight query. Results are streamed as
+they are read, at the pace the client consumes them. Every write still goes through P1Backend.
+ */
+
+@SpringBootApplication
+// The @SpringBootApplication annotation combines @Configuration, @EnableAutoConfiguration, and @ComponentScan.
+// With WebFlux and R2DBC on the classpath it configures a Netty server and an R2DBC connection pool.
+
+@ComponentScan("com.revature")
+// The @ComponentScan annotation tells Spring to scan the specified package and its subpackages for Spring-managed components
+// such as controllers, services, and repositories.
+public class P1ReactiveReadsApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(P1ReactiveReadsApplication.class, args);
+	}
+
+}
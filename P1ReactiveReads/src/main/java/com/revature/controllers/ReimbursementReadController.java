@@ -0,0 +1,99 @@
+package com.revature.controllers;
+
+import com.revature.services.ReimbursementReadService;
+import com.revature.services.SessionResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ This class is the controller of the reactive read API. It serves the same reimbursement listings as
+ P1Backend's ReimbursementController (all reimbursements, and by status) for the same logged in users,
+ identified by the session cookie or signed token of their P1Backend login.
+
+ The reimbursements are streamed as newline-delimited JSON (one OutgoingReimDTO per line) while they are read,
+ and rows are only read as fast as the client takes them. Ask for application/json to get a JSON array instead.
+ No thread waits on the database or on the client meanwhile, so a handful of threads serves every reader.
+ */
+
+@RestController
+@RequestMapping("/reimbursements")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ReimbursementReadController {
+
+    private final ReimbursementReadService reimbursementReadService;
+    private final SessionResolver sessionResolver;
+
+    /**
+     * Constructor for ReimbursementReadController.
+     * @param reimbursementReadService The reimbursement listings.
+     * @param sessionResolver Finds who is logged in on a session.
+     */
+    public ReimbursementReadController(ReimbursementReadService reimbursementReadService, SessionResolver sessionResolver) {
+        this.reimbursementReadService = reimbursementReadService;
+        this.sessionResolver = sessionResolver;
+    }
+
+    /**
+     This method handles the HTTP GET request to stream the reimbursements of the logged in user:
+     every reimbursement for a manager, their own for an employee. If the user is not logged in,
+     it returns a 401 status code with an error message.
+
+     The optional next query parameter is a cursor (the next cursor of a P1Backend page for instance),
+     the stream starts after it. The optional limit query parameter ends the stream after that many reimbursements.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Object>> getAllReimbursement(@CookieValue(name = "JSESSIONID", required = false) String sessionId,
+                                                            @CookieValue(name = "P1_TOKEN", required = false) String tokenCookie,
+                                                            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String next) {
+        return sessionResolver.resolve(sessionId, token(tokenCookie, authorization))
+                .map(session -> ResponseEntity.ok().<Object>body(reimbursementReadService.getReimbursements(session, next, limit)))
+                .defaultIfEmpty(ResponseEntity.status(401).body("You must be logged in to get your Reimbursements!"));
+    }
+
+    /**
+     This method handles the HTTP GET request to stream the reimbursements of the logged in user with a status
+     (ALL, PENDING, APPROVED or DENIED), with the same rules and query parameters as getAllReimbursement.
+     An invalid status, cursor or limit returns a 400 status code with an error message.
+     */
+    @GetMapping(value = "/status/{status}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Object>> getReimbByStatus(@CookieValue(name = "JSESSIONID", required = false) String sessionId,
+                                                         @CookieValue(name = "P1_TOKEN", required = false) String tokenCookie,
+                                                         @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                         @PathVariable String status,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String next) {
+        return sessionResolver.resolve(sessionId, token(tokenCookie, authorization))
+                .map(session -> ResponseEntity.ok().<Object>body(reimbursementReadService.getReimbByStatus(session, status, next, limit)))
+                .defaultIfEmpty(ResponseEntity.status(401).body("First, you must be logged in!"));
+    }
+
+    /**
+     * Picks the signed token of a request, the Authorization header first, then the cookie, like P1Backend does.
+     * @param tokenCookie The P1_TOKEN cookie, or null.
+     * @param authorization The Authorization header, or null.
+     * @return The token, or null if the request has none.
+     */
+    private String token(String tokenCookie, String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring("Bearer ".length()).trim();
+        }
+        return tokenCookie;
+    }
+
+    /**
+     * Turns the service's validation errors into a 400 status code with the error message.
+     * The arguments are checked before the stream starts, so the status code can still be set.
+     * @param e The validation error.
+     * @return The 400 response.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidArgument(IllegalArgumentException e) {
+        return ResponseEntity.status(400).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+}
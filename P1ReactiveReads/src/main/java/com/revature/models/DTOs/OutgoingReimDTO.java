@@ -0,0 +1,215 @@
+package com.revature.models.DTOs;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) used for sending Reimbursement data with limited fields.
+ * OutgoingReimDTO contains only reimbId, description, amount, status, userId, submittedAt and version.
+ * This DTO is designed to avoid sending the entire User object, keeping the password safe and preventing recursive issues.
+ * It is the same DTO as P1Backend's, so a client reads the reimbursements of both APIs the same way.
+ */
+public class OutgoingReimDTO {
+
+    private int reimbId;
+    private String description;
+    private String status;
+    private int amount;
+    private int userId;
+    private Instant submittedAt;
+    private long version;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingReimDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingReimDTO with reimbId, description, status, amount, and userId.
+     * @param reimbId The ID of the reimbursement.
+     * @param description The description of the reimbursement.
+     * @param status The status of the reimbursement.
+     * @param amount The amount of the reimbursement.
+     * @param userId The ID of the user associated with the reimbursement.
+     */
+    public OutgoingReimDTO(int reimbId, String description, String status, int amount, int userId) {
+        this.reimbId = reimbId;
+        this.description = description;
+        this.status = status;
+        this.amount = amount;
+        this.userId =userId;
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingReimDTO with reimbId, description, status, amount, userId and submittedAt.
+     * @param reimbId The ID of the reimbursement.
+     * @param description The description of the reimbursement.
+     * @param status The status of the reimbursement.
+     * @param amount The amount of the reimbursement.
+     * @param userId The ID of the user associated with the reimbursement.
+     * @param submittedAt When the reimbursement was submitted.
+     */
+    public OutgoingReimDTO(int reimbId, String description, String status, int amount, int userId, Instant submittedAt) {
+        this(reimbId, description, status, amount, userId);
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingReimDTO with all fields.
+     * Also used by ReimbursementReadDAO to build the DTOs straight from the rows.
+     * @param reimbId The ID of the reimbursement.
+     * @param description The description of the reimbursement.
+     * @param status The status of the reimbursement.
+     * @param amount The amount of the reimbursement.
+     * @param userId The ID of the user associated with the reimbursement.
+     * @param submittedAt When the reimbursement was submitted.
+     * @param version The version of the reimbursement, sent back in If-Match to edit it.
+     */
+    public OutgoingReimDTO(int reimbId, String description, String status, int amount, int userId, Instant submittedAt,
+                           long version) {
+        this(reimbId, description, status, amount, userId, submittedAt);
+        this.version = version;
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingReimDTO with reimbId, description, status, and amount.
+     * @param reimbId The ID of the reimbursement.
+     * @param description The description of the reimbursement.
+     * @param status The status of the reimbursement.
+     * @param amount The amount of the reimbursement.
+     */
+    public OutgoingReimDTO(int reimbId, String description, String status, int amount) {
+        this.reimbId = reimbId;
+        this.description = description;
+        this.status = status;
+        this.amount = amount;
+    }
+
+    /**
+     * Getter for reimbId.
+     * @return The ID of the reimbursement.
+     */
+    public int getReimbId() {
+        return reimbId;
+    }
+
+    /**
+     * Setter for reimbId.
+     * @param reimbId The ID of the reimbursement.
+     */
+    public void setReimbId(int reimbId) {
+        this.reimbId = reimbId;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the user associated with the reimbursement.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Setter for userId.
+     * @param userId The ID of the user associated with the reimbursement.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Getter for description.
+     * @return The description of the reimbursement.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Setter for description.
+     * @param description The description of the reimbursement.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Getter for status.
+     * @return The status of the reimbursement.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     * @param status The status of the reimbursement.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for amount.
+     * @return The amount of the reimbursement.
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    /**
+     * Setter for amount.
+     * @param amount The amount of the reimbursement.
+     */
+    public void setAmount(int amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Getter for submittedAt.
+     * @return When the reimbursement was submitted.
+     */
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Setter for submittedAt.
+     * @param submittedAt When the reimbursement was submitted.
+     */
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Getter for version.
+     * @return The version of the reimbursement, sent back in If-Match to edit it.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for version.
+     * @param version The version of the reimbursement.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingReimDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingReimDTO{" +
+                "reimbId=" + reimbId +
+                ", description='" + description + '\'' +
+                ", status='" + status + '\'' +
+                ", amount=" + amount +
+                ", submittedAt=" + submittedAt +
+                ", version=" + version +
+                '}';
+    }
+}
\ No newline at end of file
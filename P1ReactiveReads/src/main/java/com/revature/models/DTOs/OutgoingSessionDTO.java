@@ -0,0 +1,72 @@
+package com.revature.models.DTOs;
+
+/**
+ * Data Transfer Object (DTO) used for sending who is logged in on a session.
+ * Contains only the userId and role stored in the session at login.
+ * Read from P1Backend's GET /users/session, which checks the session cookie of a request.
+ */
+public class OutgoingSessionDTO {
+
+    private int userId;
+    private String role;
+
+    /**
+     * Default constructor.
+     */
+    public OutgoingSessionDTO() {
+    }
+
+    /**
+     * Parameterized constructor to initialize OutgoingSessionDTO with userId and role.
+     * @param userId The ID of the logged in user.
+     * @param role The role of the logged in user.
+     */
+    public OutgoingSessionDTO(int userId, String role) {
+        this.userId = userId;
+        this.role = role;
+    }
+
+    /**
+     * Getter for userId.
+     * @return The ID of the logged in user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Setter for userId.
+     * @param userId The ID of the logged in user.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Getter for role.
+     * @return The role of the logged in user.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Setter for role.
+     * @param role The role of the logged in user.
+     */
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    /**
+     * Overrides the default toString method to provide a string representation of the object.
+     * @return A string representation of the OutgoingSessionDTO object.
+     */
+    @Override
+    public String toString() {
+        return "OutgoingSessionDTO{" +
+                "userId=" + userId +
+                ", role='" + role + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.revature.models;
+
+/**
+ * The statuses a reimbursement can have, and the small integer P1Backend stores each one as in the status column.
+ * A copy of P1Backend's ReimbursementStatus: the codes must stay the same in both.
+ */
+public enum ReimbursementStatus {
+
+    PENDING((short) 0),
+    APPROVED((short) 1),
+    DENIED((short) 2);
+
+    private final short code;
+
+    /**
+     * Constructor for ReimbursementStatus.
+     * @param code The code stored in the status column.
+     */
+    ReimbursementStatus(short code) {
+        this.code = code;
+    }
+
+    /**
+     * Getter for code.
+     * @return The code stored in the status column.
+     */
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Finds the status stored with a code.
+     * @param code The code read from the status column.
+     * @return The status.
+     * @throws IllegalArgumentException If no status has this code.
+     */
+    public static ReimbursementStatus fromCode(short code) {
+        for (ReimbursementStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("No status is stored as " + code);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.revature.services;
+
+import com.revature.DAOs.ReimbursementReadDAO;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingSessionDTO;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service class for the reimbursement listings of the reactive read API.
+ * Same rules as P1Backend's ReimbursementService: managers see every reimbursement, employees only theirs,
+ * and the listings can be filtered by status. The listings are streams instead of pages: they start
+ * after the optional next cursor (P1Backend's page cursors work here too) and end after the optional limit.
+ * Invalid arguments throw an IllegalArgumentException right away, before any query starts.
+ */
+@Service
+public class ReimbursementReadService {
+
+    // ALL is not stored as a status, it means no status filter at all
+    private static final List<String> STATUSES = List.of("ALL", "PENDING", "APPROVED", "DENIED");
+
+    private final ReimbursementReadDAO reimbursementReadDAO;
+
+    /**
+     * Constructor for ReimbursementReadService.
+     * @param reimbursementReadDAO The reimbursement reads.
+     */
+    public ReimbursementReadService(ReimbursementReadDAO reimbursementReadDAO) {
+        this.reimbursementReadDAO = reimbursementReadDAO;
+    }
+
+    /**
+     * Streams the reimbursements a user can see: all of them for a manager, their own for an employee.
+     * @param session The logged in user.
+     * @param next A cursor, the stream starts after the reimbursement it points to, or null to start at the beginning.
+     * @param limit The maximum number of reimbursements, or null for all of them.
+     * @return The reimbursements, ordered by ID.
+     * @throws IllegalArgumentException If the cursor or the limit is not valid.
+     */
+    public Flux<OutgoingReimDTO> getReimbursements(OutgoingSessionDTO session, String next, Integer limit) {
+        return getReimbByStatus(session, "ALL", next, limit);
+    }
+
+    /**
+     * Streams the reimbursements with a status a user can see: all of them for a manager, their own for an employee.
+     * @param session The logged in user.
+     * @param status The status of the reimbursements (ALL, PENDING, APPROVED, or DENIED).
+     * @param next A cursor, the stream starts after the reimbursement it points to, or null to start at the beginning.
+     * @param limit The maximum number of reimbursements, or null for all of them.
+     * @return The reimbursements, ordered by ID.
+     * @throws IllegalArgumentException If the status, the cursor or the limit is not valid.
+     */
+    public Flux<OutgoingReimDTO> getReimbByStatus(OutgoingSessionDTO session, String status, String next, Integer limit) {
+        if (status == null || !STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Please, select a valid status option!");
+        }
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive!");
+        }
+        int afterId = decodeCursor(next);
+
+        Flux<OutgoingReimDTO> reimbursements;
+        if (session.getRole().equals("manager")) {
+            reimbursements = status.equals("ALL")
+                    ? reimbursementReadDAO.findOutgoing(afterId)
+                    : reimbursementReadDAO.findOutgoingByStatus(status, afterId);
+        } else {
+            reimbursements = status.equals("ALL")
+                    ? reimbursementReadDAO.findOutgoingByUserId(session.getUserId(), afterId)
+                    : reimbursementReadDAO.findOutgoingByStatusAndUserId(status, session.getUserId(), afterId);
+        }
+        // take cancels the query once the limit is reached, the rest of the cursor is never fetched
+        return limit == null ? reimbursements : reimbursements.take(limit);
+    }
+
+    /**
+     * Decodes a cursor back to the reimbursement ID the stream starts after, the same cursors as P1Backend's pages.
+     * @param next The cursor, or null to start at the beginning.
+     * @return The reimbursement ID to seek after (0 to start at the beginning).
+     * @throws IllegalArgumentException If the cursor is not valid.
+     */
+    private int decodeCursor(String next) {
+        if (next == null || next.isBlank()) {
+            return 0;
+        }
+        int reimbId;
+        try {
+            reimbId = Integer.parseInt(new String(Base64.getUrlDecoder().decode(next), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // Both a bad Base64 string and a NumberFormatException end up here
+            throw new IllegalArgumentException("Invalid page cursor!");
+        }
+        if (reimbId < 0) {
+            throw new IllegalArgumentException("Invalid page cursor!");
+        }
+        return reimbId;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.revature.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revature.models.DTOs.OutgoingSessionDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Finds out who is logged in on a P1Backend session or signed token. Logins happen on P1Backend, so the
+ * session cookie or token a reader sends here is checked with P1Backend's GET /users/session.
+ *
+ * Logged in sessions are remembered for a few seconds, so a reader streaming page after page doesn't
+ * cost P1Backend a request each time. A role change or a deleted user shows up here at the latest after that.
+ * Sessions that are not logged in are not remembered: the same session ID stays valid after logging in.
+ */
+@Service
+public class SessionResolver {
+
+    private final WebClient backend;
+    private final Cache<String, OutgoingSessionDTO> sessions;
+
+    /**
+     * Constructor for SessionResolver.
+     * @param webClientBuilder The WebClient builder configured by Spring Boot.
+     * @param backendUrl The base URL of P1Backend.
+     * @param cacheSeconds How long a logged in session is remembered.
+     */
+    public SessionResolver(WebClient.Builder webClientBuilder,
+                           @Value("${reads.backend-url}") String backendUrl,
+                           @Value("${reads.session-cache-seconds:30}") long cacheSeconds) {
+        this.backend = webClientBuilder.baseUrl(backendUrl).build();
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(cacheSeconds))
+                .build();
+    }
+
+    /**
+     * Finds the user logged in on a session or token. The token wins when the reader sends both, like on P1Backend.
+     * @param sessionId The JSESSIONID cookie sent by the reader, or null.
+     * @param token The signed token sent by the reader (P1_TOKEN cookie or Bearer header), or null.
+     * @return The userId and role of the logged in user, or empty if nobody is logged in.
+     */
+    public Mono<OutgoingSessionDTO> resolve(String sessionId, String token) {
+        String cookie;
+        if (token != null && !token.isBlank()) {
+            cookie = "P1_TOKEN=" + token;
+        } else if (sessionId != null && !sessionId.isBlank()) {
+            cookie = "JSESSIONID=" + sessionId;
+        } else {
+            return Mono.empty();
+        }
+
+        OutgoingSessionDTO cached = sessions.getIfPresent(cookie);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return backend.get()
+                .uri("/users/session")
+                .header(HttpHeaders.COOKIE, cookie)
+                .exchangeToMono(response -> response.statusCode().equals(HttpStatus.OK)
+                        ? response.bodyToMono(OutgoingSessionDTO.class)
+                        : response.releaseBody().then(Mono.empty()))
+                .doOnNext(session -> sessions.put(cookie, session));
+    }
+
+}
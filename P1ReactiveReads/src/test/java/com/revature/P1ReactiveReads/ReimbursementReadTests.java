@@ -0,0 +1,179 @@
+package com.revature.P1ReactiveReads;
+
+import com.revature.DAOs.ReimbursementReadDAO;
+import com.revature.models.DTOs.OutgoingReimDTO;
+import com.revature.models.DTOs.OutgoingSessionDTO;
+import com.revature.models.ReimbursementStatus;
+import com.revature.services.SessionResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the reactive listings: who sees what, status filters, cursors and limits,
+ * and that rows are only read as fast as the subscriber asks for them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReimbursementReadTests {
+
+	private static final int MANAGER_ID = 1;
+	private static final int EMPLOYEE_ID = 2;
+	private static final int OTHER_EMPLOYEE_ID = 3;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private ReimbursementReadDAO reimbursementReadDAO;
+
+	@MockBean
+	private SessionResolver sessionResolver;
+
+	@BeforeEach
+	void setUp() {
+		when(sessionResolver.resolve(any(), any())).thenReturn(Mono.empty());
+		when(sessionResolver.resolve("manager-session", null)).thenReturn(Mono.just(new OutgoingSessionDTO(MANAGER_ID, "manager")));
+		when(sessionResolver.resolve("employee-session", null)).thenReturn(Mono.just(new OutgoingSessionDTO(EMPLOYEE_ID, "employee")));
+
+		insert(1, "Hotel", "PENDING", EMPLOYEE_ID);
+		insert(2, "Taxi", "APPROVED", EMPLOYEE_ID);
+		insert(3, "Lunch", "PENDING", OTHER_EMPLOYEE_ID);
+		insert(4, "Train", "DENIED", EMPLOYEE_ID);
+	}
+
+	@AfterEach
+	void tearDown() {
+		databaseClient.sql("delete from reimbursement").then().block();
+	}
+
+	@Test
+	void managerStreamsEveryReimbursementAsNdjson() {
+		List<OutgoingReimDTO> reimbursements = webTestClient.get().uri("/reimbursements")
+				.cookie("JSESSIONID", "manager-session")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(OutgoingReimDTO.class).getResponseBody()
+				.collectList().block();
+
+		assertEquals(List.of(1, 2, 3, 4), reimbursements.stream().map(OutgoingReimDTO::getReimbId).toList());
+		assertEquals(OTHER_EMPLOYEE_ID, reimbursements.get(2).getUserId());
+	}
+
+	@Test
+	void employeeOnlySeesTheirOwnReimbursements() {
+		webTestClient.get().uri("/reimbursements/status/PENDING")
+				.cookie("JSESSIONID", "employee-session")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(1)
+				.jsonPath("$[0].description").isEqualTo("Hotel");
+
+		assertEquals(List.of(1, 2, 4), reimbIds("/reimbursements", "employee-session"));
+	}
+
+	@Test
+	void streamStartsAfterTheCursorAndStopsAtTheLimit() {
+		// The cursor of a P1Backend page ending with reimbursement 1
+		String next = Base64.getUrlEncoder().withoutPadding().encodeToString("1".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(List.of(2, 3), reimbIds("/reimbursements?next=" + next + "&limit=2", "manager-session"));
+	}
+
+	@Test
+	void missingSessionOrInvalidArgumentsAreRejected() {
+		webTestClient.get().uri("/reimbursements")
+				.exchange()
+				.expectStatus().isUnauthorized();
+
+		webTestClient.get().uri("/reimbursements/status/PAID")
+				.cookie("JSESSIONID", "manager-session")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Please, select a valid status option!");
+
+		webTestClient.get().uri("/reimbursements?next=not-a-cursor")
+				.cookie("JSESSIONID", "manager-session")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Invalid page cursor!");
+	}
+
+	@Test
+	void rowsAreReadOnDemand() {
+		Flux.range(5, 1000).concatMap(id -> databaseClient.sql(
+						"insert into reimbursement (reimb_id, description, status, amount, user_id, submitted_at, version) " +
+								"values (:id, 'Taxi', 0, 25, :userId, :submittedAt, 0)")
+				.bind("id", id).bind("userId", EMPLOYEE_ID).bind("submittedAt", Instant.now())
+				.then()).blockLast();
+
+		// Nothing is emitted before it is requested, and cancelling ends the query early
+		StepVerifier.create(reimbursementReadDAO.findOutgoing(0), 0)
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(100))
+				.thenRequest(10)
+				.expectNextCount(10)
+				.thenCancel()
+				.verify();
+	}
+
+	/**
+	 * Gets a listing as a JSON array.
+	 * @param uri The URI of the listing.
+	 * @param sessionId The session cookie of the reader.
+	 * @return The IDs of the listed reimbursements, in order.
+	 */
+	private List<Integer> reimbIds(String uri, String sessionId) {
+		return webTestClient.get().uri(uri)
+				.cookie("JSESSIONID", sessionId)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(OutgoingReimDTO.class).returnResult().getResponseBody()
+				.stream().map(OutgoingReimDTO::getReimbId).toList();
+	}
+
+	/**
+	 * Inserts a reimbursement, the way P1Backend would have stored it.
+	 * @param reimbId The ID of the reimbursement.
+	 * @param description The description.
+	 * @param status The status.
+	 * @param userId The ID of its user.
+	 */
+	private void insert(int reimbId, String description, String status, int userId) {
+		databaseClient.sql("insert into reimbursement (reimb_id, description, status, amount, user_id, submitted_at, version) " +
+						"values (:reimbId, :description, :status, 100, :userId, :submittedAt, 0)")
+				.bind("reimbId", reimbId)
+				.bind("description", description)
+				.bind("status", ReimbursementStatus.valueOf(status).getCode())
+				.bind("userId", userId)
+				.bind("submittedAt", Instant.now())
+				.then().block();
+	}
+
+}
@@ -0,0 +1,11 @@
+-- The reimbursement table as P1Backend's Hibernate mapping creates it
+create table if not exists reimbursement (
+    reimb_id integer primary key,
+    description varchar(255),
+    status smallint check (status in (0, 1, 2)),
+    amount integer not null,
+    user_id integer,
+    submitted_at timestamp(6) with time zone,
+    last_modified timestamp(6) with time zone,
+    version bigint not null
+);
@@ -22,6 +22,10 @@ export const Collection: React.FC = () => {
     //we'll store state that consists of an Array of ReimbursementInterface objects
     // State to store reimbursements
     const [reimbursements, setReimbursement] = useState<ReimbursementInterface[]>([]) //start with empty array
+
+    // State to store the selected status and the cursor of the next page (null when there are no more pages)
+    const [status, setStatus] = useState<string>("ALL")
+    const [next, setNext] = useState<string|null>(null)
      
     // Hook to navigate between components
     const navigate = useNavigate()
@@ -32,15 +36,33 @@ export const Collection: React.FC = () => {
         getAllReimbursement()
     }, []) //empty array so this triggers on component load and state change
 
-    //Function to get all reimbursements from the server
-    const getAllReimbursement= async () => {
+    //Listen for status changes of our reimbursements instead of refetching the list
+    //The browser reconnects by itself if the connection drops
+    useEffect(() => {
+        const events = new EventSource("http://localhost:8080/reimbursements/events", {withCredentials:true})
+
+        events.addEventListener("status", (event) => {
+            const changed: ReimbursementInterface = JSON.parse((event as MessageEvent).data)
+            setReimbursement((current) => current.map((reim) =>
+                reim.reimbId === changed.reimbId ? {...reim, status: changed.status} : reim))
+        })
+
+        //close the connection when we leave the page
+        return () => events.close()
+    }, [])
+
+    //Function to get a page of reimbursements from the server
+    //Without a cursor the first page replaces the list, with a cursor the page is appended to it
+    const getAllReimbursement= async (cursor?:string) => {
 
         try {
         // Send GET request to server to get all reimbursements(remember to send withCredentials to confirm the user is logged in)
-        const response = await axios.get("http://localhost:8080/reimbursements", {withCredentials:true})
+        const response = await axios.get("http://localhost:8080/reimbursements", {params:{next:cursor}, withCredentials:true})
 
         //populate the Reimbursement state  
-        setReimbursement(response.data)
+        setStatus("ALL")
+        setReimbursement(cursor ? [...reimbursements, ...response.data.reimbursements] : response.data.reimbursements)
+        setNext(response.data.next)
         } catch (error) {
             // Handle errors
             if (axios.isAxiosError(error)) {
@@ -80,14 +102,23 @@ export const Collection: React.FC = () => {
 
             if(status=="ALL"){
                 getAllReimbursement()
+                return
             }
 
+            getReimbursementStatusPage(status)
+        }
+
+        //GET request to server to get a page of reimbursements by status
+        const getReimbursementStatusPage= async (status:string, cursor?:string) => {
+
             //our GET request (remember to send withCredentials to confirm the user is logged in)
             //const response = await axios.get("http://localhost:8080/reimbursements/status/" + status, {withCredentials:true})
             
             try {
-                const response = await axios.get(`http://localhost:8080/reimbursements/status/${status}`, { withCredentials: true });
-                setReimbursement(response.data);
+                const response = await axios.get(`http://localhost:8080/reimbursements/status/${status}`, { params:{next:cursor}, withCredentials: true });
+                setStatus(status)
+                setReimbursement(cursor ? [...reimbursements, ...response.data.reimbursements] : response.data.reimbursements);
+                setNext(response.data.next)
               } catch (error) {
                 if (axios.isAxiosError(error)) {
                   // Handle AxiosError
@@ -97,6 +128,18 @@ export const Collection: React.FC = () => {
                 } 
             }
         }
+        //Load the page after the last one loaded, for the selected status
+        const loadMore = () => {
+            if (next === null) {
+                return
+            }
+            if (status === "ALL") {
+                getAllReimbursement(next)
+            } else {
+                getReimbursementStatusPage(status, next)
+            }
+        }
+
         //Handle navigation based on user role
         //Function to handle navigation back to manager portal or submission page
         const handleReim = () => {
@@ -161,6 +204,8 @@ export const Collection: React.FC = () => {
         ))}
       </tbody>
     </table>
+      {/* Button to load the next page, only shown while there are more pages */}
+            {next !== null && <button className="col1-button" onClick={() => loadMore()}>LOAD MORE</button>}
       {/* Buttons for updating and navigating back */}
             <div>
                 <button className="col1-button" onClick={() => handleReim() }>UPDATE</button>
@@ -31,7 +31,8 @@ export const UpdateManager: React.FC = () => {
     
       try {
         const response = await axios.get(`http://localhost:8080/reimbursements/status/${status}`, { withCredentials: true });
-        setReimbursement(response.data);
+        //the response is a page, the PENDING queue is reviewed one page at a time
+        setReimbursement(response.data.reimbursements);
       } catch (error) {
           if (axios.isAxiosError(error)) {
             // Handle AxiosError